@@ -45,6 +45,53 @@ java {
     }
 }
 
+// Benchmarks, running against synthetic data, see src/benchmark
+sourceSets {
+    create("benchmark") {
+        compileClasspath += sourceSets.main.get().output
+        runtimeClasspath += sourceSets.main.get().output
+    }
+}
+
+configurations {
+    named("benchmarkImplementation") { extendsFrom(configurations.implementation.get()) }
+    named("benchmarkRuntimeOnly") { extendsFrom(configurations.runtimeOnly.get()) }
+}
+
+// Measures the candidate scan and uninstall cost as the number of installed
+// versions grows, on tmpfs (where available) and on disk, configured via
+// -Pbenchmark.candidates, -Pbenchmark.versions and -Pbenchmark.files
+tasks.register<JavaExec>("benchmarkLocalScan") {
+    group = "benchmark"
+    classpath = sourceSets["benchmark"].runtimeClasspath
+    mainClass = "is.codion.sdkboy.model.LocalScanBenchmark"
+    systemProperties(project.properties.filterKeys { it.startsWith("benchmark.") })
+    args = listOf(
+        "/dev/shm/sdkboy-benchmark",
+        layout.buildDirectory.dir("benchmark").get().asFile.absolutePath
+    )
+}
+
+// Measures the accuracy of the download bandwidth limits against a local stand-in
+// server, configured via -Pbenchmark.limits, -Pbenchmark.seconds and -Pbenchmark.downloads
+tasks.register<JavaExec>("benchmarkBandwidth") {
+    group = "benchmark"
+    classpath = sourceSets["benchmark"].runtimeClasspath
+    mainClass = "is.codion.sdkboy.model.BandwidthBenchmark"
+    systemProperties(project.properties.filterKeys { it.startsWith("benchmark.") })
+}
+
+// Measures the heap retained by the catalogue and the search index, with the strings as parsed
+// and as shared, with the heap of the application, failing in case the index exceeds its budget,
+// configured via -Pbenchmark.candidates, -Pbenchmark.versions and -Pbenchmark.budget
+tasks.register<JavaExec>("benchmarkSearchIndex") {
+    group = "benchmark"
+    classpath = sourceSets["benchmark"].runtimeClasspath
+    mainClass = "is.codion.sdkboy.model.SearchIndexBenchmark"
+    jvmArgs("-Xmx32m")
+    systemProperties(project.properties.filterKeys { it.startsWith("benchmark.") })
+}
+
 spotless {
     // Just the license headers
     java {
@@ -63,10 +110,18 @@ application {
     mainClass = "is.codion.sdkboy.ui.SDKBoyPanel"
     applicationDefaultJvmArgs = listOf(
         // This app doesn't require a lot of memory
-        "-Xmx32m"
+        "-Xmx32m",
+        // The AOT cache baked into the runtime image, see the aotCache task,
+        // the JVM prints a warning and starts without it, if it is missing
+        "-XX:AOTCache={{BIN_DIR}}/../lib/sdkboy.aot"
     )
 }
 
+// The AOT cache only exists in the runtime image
+tasks.named<JavaExec>("run") {
+    jvmArgs = application.applicationDefaultJvmArgs.filterNot { it.startsWith("-XX:AOTCache") }
+}
+
 tasks.withType<JavaCompile>().configureEach {
     options.encoding = "UTF-8"
     options.isDeprecation = true
@@ -113,12 +168,34 @@ jlink {
         "--strip-debug",
         "--no-header-files",
         "--no-man-pages",
+        // The default CDS archive, for the command line launcher
+        "--generate-cds-archive",
         // Add the logback plugin module
         "--add-modules",
         "is.codion.plugin.logback.proxy"
     )
 
+    // The headless command line, which does not load any AWT
+    // or Swing classes, tuned for a short lived process
+    secondaryLauncher {
+        name = "sdkboy-cli"
+        moduleName = "is.codion.sdkboy"
+        mainClass = "is.codion.sdkboy.cli.SDKBoyCli"
+        jvmArgs = mutableListOf(
+            "-Xmx64m",
+            "-XX:+UseSerialGC",
+            "-XX:TieredStopAtLevel=1",
+            "-Djava.awt.headless=true"
+        )
+    }
+
     jpackage {
+        // The installers bundle the runtime image, including the AOT cache
+        jvmArgs = listOf(
+            "-Xmx32m",
+            "-XX:AOTCache=\$APPDIR/../runtime/" +
+                    (if (OperatingSystem.current().isMacOsX) "Contents/Home/" else "") + "lib/sdkboy.aot"
+        )
         if (OperatingSystem.current().isLinux) {
             icon = "src/main/icons/sdkboy.png"
             installerType = "deb"
@@ -141,6 +218,48 @@ jlink {
     }
 }
 
+val jlinkImageDir = jlink.imageDir
+val aotCacheFile = jlinkImageDir.map { it.file("lib/sdkboy.aot") }
+
+// Bakes an AOT cache into the runtime image, using a training run which exits
+// after the first paint, so it requires a display, use xvfb-run when headless.
+// The cache contains the classes loaded and linked during startup, along with
+// the profiling data, so they don't have to be loaded and verified on every launch.
+tasks.register<Exec>("aotCache") {
+    group = "build"
+    dependsOn(tasks.named("jlink"))
+    outputs.file(aotCacheFile)
+    executable = jlinkImageDir.get().file("bin/java").asFile.absolutePath
+    args = listOf(
+        "-Xmx32m",
+        "-XX:AOTCacheOutput=" + aotCacheFile.get().asFile.absolutePath,
+        "-Dsdkboy.exitAfterFirstPaint=true",
+        "-m", "is.codion.sdkboy/is.codion.sdkboy.ui.SDKBoyPanel"
+    )
+}
+
+tasks.named("jlinkZip") {
+    dependsOn(tasks.named("aotCache"))
+}
+
+tasks.named("jpackageImage") {
+    dependsOn(tasks.named("aotCache"))
+}
+
+// Measures the time to first paint of the runtime image, with and
+// without the AOT cache, configured via -Pbenchmark.launches
+tasks.register<JavaExec>("benchmarkStartup") {
+    group = "benchmark"
+    dependsOn(tasks.named("aotCache"))
+    classpath = sourceSets["benchmark"].runtimeClasspath
+    mainClass = "is.codion.sdkboy.ui.StartupBenchmark"
+    systemProperties(project.properties.filterKeys { it.startsWith("benchmark.") })
+    args = listOf(
+        jlinkImageDir.get().asFile.absolutePath,
+        aotCacheFile.get().asFile.absolutePath
+    )
+}
+
 if (properties.containsKey("githubAccessToken")) {
     githubRelease {
         token(properties["githubAccessToken"] as String)
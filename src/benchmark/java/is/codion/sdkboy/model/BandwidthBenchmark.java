@@ -0,0 +1,174 @@
+/*
+ * This file is part of SDKBOY.
+ *
+ * SDKBOY is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SDKBOY is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SDKBOY.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (c) 2026, Björn Darri Sigurðsson.
+ */
+package is.codion.sdkboy.model;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Measures the accuracy of the bandwidth limits, downloading from a local stand-in server,
+ * at several limits, first a single download with the per download limit, then a few
+ * concurrent downloads sharing the total limit.
+ * <ul>
+ *   <li>{@code benchmark.limits} comma separated limits in KiB/s, default 256,1024,4096,16384
+ *   <li>{@code benchmark.seconds} the expected duration of each download at the limit, default 5
+ *   <li>{@code benchmark.downloads} the number of concurrent downloads sharing the total limit, default 3
+ * </ul>
+ */
+final class BandwidthBenchmark {
+
+	private static final String IDENTIFIER = "benchmark-1.0";
+
+	private static int archives = 0;
+
+	private BandwidthBenchmark() {}
+
+	static void main(String[] args) throws Exception {
+		int[] limits = Arrays.stream(System.getProperty("benchmark.limits", "256,1024,4096,16384").split(","))
+						.map(String::trim)
+						.mapToInt(Integer::parseInt)
+						.toArray();
+		int seconds = Integer.getInteger("benchmark.seconds", 5);
+		int downloads = Integer.getInteger("benchmark.downloads", 3);
+
+		Path directory = Files.createTempDirectory("sdkboy-bandwidth");
+		HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+		server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+		server.start();
+		try {
+			// Warm up, unlimited
+			download(serve(server, archive(1024 * 1024)), directory, new Bandwidth(new Metrics()), 0);
+			System.out.printf("%-10s %10s %12s %12s %10s%n", "limit", "KiB/s", "bytes", "actual KiB/s", "error %");
+			for (int limit : limits) {
+				byte[] archive = archive(limit * 1024L * seconds);
+				String url = serve(server, archive);
+				report("download", limit, downloadLimited(url, directory, limit * 1024L));
+				byte[] shared = archive(limit * 1024L * seconds / downloads);
+				report("total", limit, totalLimited(serve(server, shared), directory, limit * 1024L, downloads));
+			}
+		}
+		finally {
+			server.stop(0);
+			try (var files = Files.list(directory)) {
+				for (Path file : files.toList()) {
+					Files.delete(file);
+				}
+			}
+			Files.delete(directory);
+		}
+	}
+
+	private static Result downloadLimited(String url, Path directory, long bytesPerSecond) {
+		Bandwidth bandwidth = new Bandwidth(new Metrics());
+		bandwidth.downloadLimit(bytesPerSecond);
+		long start = System.nanoTime();
+		long bytes = download(url, directory, bandwidth, 0);
+
+		return new Result(bytes, System.nanoTime() - start);
+	}
+
+	private static Result totalLimited(String url, Path directory, long bytesPerSecond, int downloads) throws Exception {
+		Bandwidth bandwidth = new Bandwidth(new Metrics());
+		bandwidth.limit(bytesPerSecond);
+		List<Future<Long>> futures = new ArrayList<>();
+		long start = System.nanoTime();
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < downloads; i++) {
+				int index = i;
+				futures.add(executor.submit(() -> download(url, directory, bandwidth, index)));
+			}
+		}
+		long nanos = System.nanoTime() - start;
+		long bytes = 0;
+		for (Future<Long> future : futures) {
+			bytes += future.get();
+		}
+
+		return new Result(bytes, nanos);
+	}
+
+	private static long download(String url, Path directory, Bandwidth bandwidth, int index) {
+		URI uri = URI.create(url);
+		Metrics metrics = new Metrics();
+		Mirrors mirrors = new Mirrors(uri.getScheme() + "://" + uri.getAuthority(), directory.resolve(Mirrors.FILE_NAME), metrics);
+
+		return new Download(uri.getPath(), mirrors, directory.resolve(index + ".bin"), directory.resolve(index + ".zip"),
+						IDENTIFIER, bandwidth.throttle(), metrics).download(_ -> {});
+	}
+
+	private static void report(String limit, int kibPerSecond, Result result) {
+		double actual = result.bytes() / 1024d / (result.nanos() / 1_000_000_000d);
+		System.out.printf("%-10s %10d %12d %12.1f %10.2f%n", limit, kibPerSecond, result.bytes(),
+						actual, (actual - kibPerSecond) * 100 / kibPerSecond);
+	}
+
+	private static String serve(HttpServer server, byte[] archive) {
+		String path = "/" + archives++ + ".zip";
+		server.createContext(path, exchange -> {
+			exchange.sendResponseHeaders(200, archive.length);
+			try (OutputStream output = exchange.getResponseBody()) {
+				output.write(archive);
+			}
+		});
+
+		return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+	}
+
+	/**
+	 * @return a zip archive of approximately the given size, containing a single incompressible entry
+	 */
+	private static byte[] archive(long size) throws IOException {
+		byte[] content = new byte[(int) size];
+		new Random(42).nextBytes(content);
+		CRC32 crc = new CRC32();
+		crc.update(content);
+		ZipEntry entry = new ZipEntry(IDENTIFIER + "/content.bin");
+		entry.setMethod(ZipEntry.STORED);
+		entry.setSize(content.length);
+		entry.setCrc(crc.getValue());
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(content.length + 1024);
+		try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+			zip.putNextEntry(entry);
+			zip.write(content);
+			zip.closeEntry();
+		}
+
+		return bytes.toByteArray();
+	}
+
+	private record Result(long bytes, long nanos) {}
+}
@@ -0,0 +1,167 @@
+/*
+ * This file is part of SDKBOY.
+ *
+ * SDKBOY is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SDKBOY is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SDKBOY.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (c) 2026, Björn Darri Sigurðsson.
+ */
+package is.codion.sdkboy.model;
+
+import is.codion.sdkboy.model.SDKBoyModel.CandidateModel.CandidateRow;
+
+import io.github.jagodevreede.sdkman.api.SdkManApi;
+import io.github.jagodevreede.sdkman.api.files.FileUtil;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+/**
+ * Measures the local filesystem hot paths against synthetic SDKMAN_HOME trees
+ * of increasing size, see {@link SDKManHomeFixture}.
+ * <p>
+ * Each argument is a directory in which to create the fixtures, such as a tmpfs
+ * mount and a directory on disk, arguments pointing to a missing parent are skipped.
+ * <ul>
+ *   <li>{@code benchmark.candidates} the number of candidates, default 40
+ *   <li>{@code benchmark.versions} comma separated installed versions per candidate, default 1,5,20
+ *   <li>{@code benchmark.files} files per installed version, default 600
+ * </ul>
+ */
+final class LocalScanBenchmark {
+
+	private static final int WARMUP = 3;
+	private static final int ITERATIONS = 10;
+	private static final int UNINSTALLS = 5;
+
+	private LocalScanBenchmark() {}
+
+	static void main(String[] args) throws Exception {
+		int candidates = Integer.getInteger("benchmark.candidates", 40);
+		int files = Integer.getInteger("benchmark.files", 600);
+		int[] versions = Arrays.stream(System.getProperty("benchmark.versions", "1,5,20").split(","))
+						.map(String::trim)
+						.mapToInt(Integer::parseInt)
+						.toArray();
+
+		System.out.printf("%-40s %10s %14s %14s %14s%n",
+						"root", "installed", "candidates ms", "current ms", "uninstall ms");
+		for (String arg : args) {
+			Path root = Path.of(arg);
+			if (root.getParent() != null && !Files.isDirectory(root.getParent())) {
+				System.out.printf("%-40s skipped, %s not found%n", root, root.getParent());
+				continue;
+			}
+			for (int versionCount : versions) {
+				run(root, candidates, versionCount, files);
+			}
+		}
+	}
+
+	private static void run(Path root, int candidates, int versions, int files) throws Exception {
+		Path home = root.resolve("sdkman-" + candidates + "x" + versions);
+		delete(home);
+		SDKManHomeFixture fixture = new SDKManHomeFixture(home, candidates, versions, files).create();
+		try {
+			SdkManApi sdkMan = new SdkManApi(home.toString());
+			// Without the background services, which would compete for the filesystem
+			SDKBoyModel model = new SDKBoyModel(sdkMan, false);
+			Supplier<Collection<CandidateRow>> candidateItems = model.candidateModel().new CandidateItems();
+
+			double candidatesMs = measure(candidateItems::get);
+			double currentMs = measure(() -> {
+				for (String candidate : fixture.candidateIds()) {
+					sdkMan.resolveCurrentVersion(candidate);
+				}
+
+				return null;
+			});
+			double uninstallMs = uninstall(fixture);
+
+			System.out.printf("%-40s %10d %14.2f %14.2f %14.2f%n",
+							root, candidates * versions, candidatesMs, currentMs, uninstallMs);
+		}
+		finally {
+			delete(home);
+		}
+	}
+
+	/**
+	 * Uninstalls a few versions which are not current, the same filesystem work as
+	 * {@link SdkManApi#uninstall(String, String)} without the catalogue lookup.
+	 * @return the mean uninstall time in ms
+	 */
+	private static double uninstall(SDKManHomeFixture fixture) throws IOException {
+		String candidate = fixture.candidateIds().getFirst();
+		List<String> identifiers = new ArrayList<>(fixture.identifiers());
+		// The last one is current
+		identifiers.removeLast();
+		if (identifiers.isEmpty()) {
+			return Double.NaN;
+		}
+		long total = 0;
+		int count = Math.min(UNINSTALLS, identifiers.size());
+		for (int i = 0; i < count; i++) {
+			Path directory = fixture.versionDirectory(candidate, identifiers.get(i));
+			long start = System.nanoTime();
+			FileUtil.deleteRecursively(directory.toFile());
+			total += System.nanoTime() - start;
+		}
+
+		return total / 1_000_000d / count;
+	}
+
+	private static double measure(Callable<?> callable) throws Exception {
+		for (int i = 0; i < WARMUP; i++) {
+			callable.call();
+		}
+		long[] times = new long[ITERATIONS];
+		for (int i = 0; i < ITERATIONS; i++) {
+			long start = System.nanoTime();
+			callable.call();
+			times[i] = System.nanoTime() - start;
+		}
+		Arrays.sort(times);
+
+		return times[ITERATIONS / 2] / 1_000_000d;
+	}
+
+	private static void delete(Path path) throws IOException {
+		if (!Files.exists(path)) {
+			return;
+		}
+		Files.walkFileTree(path, new SimpleFileVisitor<>() {
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+				Files.delete(file);
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult postVisitDirectory(Path directory, IOException exception) throws IOException {
+				Files.delete(directory);
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+}
@@ -0,0 +1,210 @@
+/*
+ * This file is part of SDKBOY.
+ *
+ * SDKBOY is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SDKBOY is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SDKBOY.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (c) 2026, Björn Darri Sigurðsson.
+ */
+package is.codion.sdkboy.model;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Builds a synthetic SDKMAN_HOME, containing a number of candidates, each with
+ * a number of installed versions, laid out like a JDK image, including the
+ * symlinks found in the legal folder and a {@code current} link per candidate.
+ * The candidate catalogue is written to the http cache, so that
+ * {@link io.github.jagodevreede.sdkman.api.SdkManApi#getCandidates()} does not hit the network.
+ */
+final class SDKManHomeFixture {
+
+	private static final String CANDIDATE_LIST_URL = "https://api.sdkman.io/2/candidates/list";
+	private static final String[] MODULES = {
+					"java.base", "java.compiler", "java.datatransfer", "java.desktop", "java.instrument",
+					"java.logging", "java.management", "java.naming", "java.net.http", "java.prefs",
+					"java.rmi", "java.scripting", "java.security.jgss", "java.sql", "java.xml",
+					"jdk.compiler", "jdk.crypto.ec", "jdk.httpserver", "jdk.jfr", "jdk.jlink"
+	};
+	private static final String[] LEGAL_FILES = {"ASSEMBLY_EXCEPTION", "LICENSE", "ADDITIONAL_LICENSE_INFO"};
+	private static final byte[] CONTENT = new byte[4096];
+
+	static {
+		new Random(42).nextBytes(CONTENT);
+	}
+
+	private final Path home;
+	private final int candidates;
+	private final int versions;
+	private final int files;
+
+	/**
+	 * @param home the SDKMAN_HOME directory to create
+	 * @param candidates the number of candidates
+	 * @param versions the number of installed versions per candidate
+	 * @param files the approximate number of files per installed version
+	 */
+	SDKManHomeFixture(Path home, int candidates, int versions, int files) {
+		this.home = home;
+		this.candidates = candidates;
+		this.versions = versions;
+		this.files = files;
+	}
+
+	Path home() {
+		return home;
+	}
+
+	List<String> candidateIds() {
+		List<String> ids = new ArrayList<>(candidates);
+		for (int i = 0; i < candidates; i++) {
+			ids.add(candidateId(i));
+		}
+
+		return ids;
+	}
+
+	List<String> identifiers() {
+		List<String> identifiers = new ArrayList<>(versions);
+		for (int i = 0; i < versions; i++) {
+			identifiers.add(identifier(i));
+		}
+
+		return identifiers;
+	}
+
+	Path versionDirectory(String candidate, String identifier) {
+		return home.resolve("candidates").resolve(candidate).resolve(identifier);
+	}
+
+	SDKManHomeFixture create() throws IOException {
+		Files.createDirectories(home.resolve("archives"));
+		Files.createDirectories(home.resolve("tmp"));
+		writeCandidateList();
+		for (String candidate : candidateIds()) {
+			Path candidateDirectory = home.resolve("candidates").resolve(candidate);
+			for (String identifier : identifiers()) {
+				createVersion(candidateDirectory.resolve(identifier), identifier);
+			}
+			if (versions > 0) {
+				Files.createSymbolicLink(candidateDirectory.resolve("current"),
+								candidateDirectory.resolve(identifiers().getLast()).toAbsolutePath());
+			}
+		}
+
+		return this;
+	}
+
+	private void writeCandidateList() throws IOException {
+		StringBuilder builder = new StringBuilder();
+		for (String candidate : candidateIds()) {
+			builder.append("-".repeat(80)).append("\n")
+							.append(candidate).append(" (1.0.0)").append(" ".repeat(40)).append("https://sdkman.io\n")
+							.append("\n")
+							.append("A synthetic candidate named ").append(candidate).append("\n")
+							.append("\n")
+							.append(" ".repeat(60)).append("$ sdk install ").append(candidate).append("\n");
+		}
+		Path cache = home.resolve(".http_cache");
+		Files.createDirectories(cache);
+		Files.writeString(cache.resolve(CANDIDATE_LIST_URL.replaceAll("[^a-zA-Z0-9]", "_")), builder, UTF_8);
+	}
+
+	private void createVersion(Path directory, String identifier) throws IOException {
+		int legal = MODULES.length * LEGAL_FILES.length;
+		int bin = Math.max(1, files / 20);
+		int conf = Math.max(1, files / 20);
+		int include = Math.max(1, files / 50);
+		int jmods = Math.max(1, files / 10);
+		int lib = Math.max(1, files - legal - bin - conf - include - jmods);
+
+		Files.createDirectories(directory);
+		Files.writeString(directory.resolve("release"), """
+						IMPLEMENTOR="Synthetic"
+						JAVA_VERSION="%s"
+						OS_ARCH="x86_64"
+						MODULES="%s"
+						""".formatted(identifier, String.join(" ", MODULES)), UTF_8);
+		createFiles(directory.resolve("bin"), "tool", bin, 8 * 1024, true);
+		createFiles(directory.resolve("conf").resolve("security"), "policy", conf, 2 * 1024, false);
+		createFiles(directory.resolve("include"), "header", include, 4 * 1024, false);
+		createFiles(directory.resolve("jmods"), "module", jmods, 64 * 1024, false);
+		createFiles(directory.resolve("lib"), "library", lib, 32 * 1024, false);
+		Files.createSymbolicLink(directory.resolve("lib").resolve("libjli.so"), Path.of("library0"));
+		createLegal(directory.resolve("legal"));
+	}
+
+	private static void createLegal(Path legal) throws IOException {
+		Path base = legal.resolve(MODULES[0]);
+		createFiles(base, LEGAL_FILES);
+		for (int i = 1; i < MODULES.length; i++) {
+			Path module = legal.resolve(MODULES[i]);
+			Files.createDirectories(module);
+			// Like in JDK images, most legal files are links to the java.base ones
+			for (String legalFile : LEGAL_FILES) {
+				Files.createSymbolicLink(module.resolve(legalFile), Path.of("..", MODULES[0], legalFile));
+			}
+		}
+	}
+
+	private static void createFiles(Path directory, String... names) throws IOException {
+		Files.createDirectories(directory);
+		for (String name : names) {
+			write(directory.resolve(name), 1024);
+		}
+	}
+
+	private static void createFiles(Path directory, String prefix, int count, int maxSize,
+																	boolean executable) throws IOException {
+		Files.createDirectories(directory);
+		Random random = new Random(count);
+		for (int i = 0; i < count; i++) {
+			Path file = directory.resolve(prefix + i);
+			write(file, random.nextInt(maxSize));
+			if (executable && !isWindows()) {
+				Files.setPosixFilePermissions(file, PosixFilePermissions.fromString("rwxr-xr-x"));
+			}
+		}
+	}
+
+	private static void write(Path file, int size) throws IOException {
+		try (var output = Files.newOutputStream(file)) {
+			int remaining = size;
+			while (remaining > 0) {
+				int length = Math.min(remaining, CONTENT.length);
+				output.write(CONTENT, 0, length);
+				remaining -= length;
+			}
+		}
+	}
+
+	private static String candidateId(int index) {
+		return "candidate" + (char) ('a' + index / 26 % 26) + (char) ('a' + index % 26);
+	}
+
+	private static String identifier(int index) {
+		return (17 + index / 10) + ".0." + (index % 10) + "-syn";
+	}
+
+	private static boolean isWindows() {
+		return System.getProperty("os.name").toLowerCase().contains("win");
+	}
+}
@@ -0,0 +1,188 @@
+/*
+ * This file is part of SDKBOY.
+ *
+ * SDKBOY is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SDKBOY is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SDKBOY.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (c) 2026, Björn Darri Sigurðsson.
+ */
+package is.codion.sdkboy.model;
+
+import io.github.jagodevreede.sdkman.api.domain.Candidate;
+import io.github.jagodevreede.sdkman.api.domain.CandidateVersion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Measures the heap retained by a synthetic catalogue and the {@link SearchIndex} built from it,
+ * along with the build and search times, with the strings as parsed, each one a distinct instance,
+ * and with the strings shared the same way as {@link SDKBoyService#catalogue()} shares them,
+ * the vendor and dist strings interned and the identifier sharing the version string when equal.
+ * The index is measured once the catalogue has been released, as it is after indexing, including the strings
+ * it shares with the catalogue.
+ * <p>
+ * Run with the heap of the application, -Xmx32m, exiting with a non-zero status in case the index retains
+ * more than the budget per version.
+ * <ul>
+ *   <li>{@code benchmark.candidates} the number of candidates, default 100
+ *   <li>{@code benchmark.versions} comma separated versions per candidate, default 100,1000
+ *   <li>{@code benchmark.budget} the heap the index may retain per version, in bytes, default 160,
+ *   half the heap with a 100k version catalogue
+ * </ul>
+ */
+final class SearchIndexBenchmark {
+
+	private static final int WARMUP = 3;
+	private static final int ITERATIONS = 10;
+	private static final int SEARCHES = 1_000;
+	private static final String[] QUERIES = {"graal", "21.0", "tem 21", "zulu 17.1", "candidate 7"};
+	private static final String[][] VENDORS = {
+					{"Temurin", "tem"}, {"GraalVM CE", "graalce"}, {"Corretto", "amzn"}, {"Zulu", "zulu"},
+					{"Liberica", "librca"}, {"Java.net", "open"}, {"Microsoft", "ms"}, {"SapMachine", "sapmchn"}
+	};
+
+	private SearchIndexBenchmark() {}
+
+	static void main(String[] args) {
+		int candidates = Integer.getInteger("benchmark.candidates", 100);
+		int budget = Integer.getInteger("benchmark.budget", 160);
+		int[] versions = Arrays.stream(System.getProperty("benchmark.versions", "100,1000").split(","))
+						.map(String::trim)
+						.mapToInt(Integer::parseInt)
+						.toArray();
+
+		System.out.printf("%-8s %10s %14s %14s %14s %12s %12s%n",
+						"strings", "versions", "catalogue MB", "index MB", "index B/ver", "build ms", "search ms");
+		long maximum = 0;
+		for (int versionCount : versions) {
+			maximum = Math.max(maximum, run("parsed", candidates, versionCount, UnaryOperator.identity()));
+			maximum = Math.max(maximum, run("shared", candidates, versionCount, new Sharing()));
+		}
+		if (maximum > budget) {
+			System.err.printf("The index retains up to %d bytes per version, exceeding the budget of %d%n", maximum, budget);
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * @return the heap retained by the index per version, in bytes
+	 */
+	private static long run(String strings, int candidates, int versions, UnaryOperator<CandidateVersion> sharing) {
+		long empty = used();
+		Map<Candidate, List<CandidateVersion>> catalogue = catalogue(candidates, versions, sharing);
+		long withCatalogue = used();
+		double buildMs = measure(() -> SearchIndex.of(catalogue));
+		SearchIndex index = SearchIndex.of(catalogue);
+		// Released, as after indexing, leaving the strings shared with the index
+		catalogue.clear();
+		long withIndex = used();
+		double searchMs = search(index);
+		long bytesPerVersion = (withIndex - empty) / index.size();
+
+		System.out.printf("%-8s %10d %14.1f %14.1f %14d %12.2f %12.3f%n",
+						strings, index.size(), (withCatalogue - empty) / 1e6, (withIndex - empty) / 1e6,
+						bytesPerVersion, buildMs, searchMs);
+
+		return bytesPerVersion;
+	}
+
+	/**
+	 * @return a catalogue with every string a distinct instance, as parsed, before the given sharing is applied
+	 */
+	private static Map<Candidate, List<CandidateVersion>> catalogue(int candidates, int versions, UnaryOperator<CandidateVersion> sharing) {
+		Random random = new Random(42);
+		Map<Candidate, List<CandidateVersion>> catalogue = new HashMap<>();
+		for (int i = 0; i < candidates; i++) {
+			Candidate candidate = new Candidate("candidate" + i, "Candidate " + i, "The description of candidate " + i);
+			List<CandidateVersion> candidateVersions = new ArrayList<>(versions);
+			for (int j = 0; j < versions; j++) {
+				String version = (8 + random.nextInt(18)) + "." + random.nextInt(3) + "." + j;
+				// Every third candidate has vendors, like java, the rest use the version as identifier
+				if (i % 3 == 0) {
+					String[] vendor = VENDORS[random.nextInt(VENDORS.length)];
+					candidateVersions.add(sharing.apply(new CandidateVersion(new String(vendor[0]), version,
+									new String(vendor[1]), version + "-" + vendor[1], false, false)));
+				}
+				else {
+					candidateVersions.add(sharing.apply(new CandidateVersion(null, version, null, new String(version), false, false)));
+				}
+			}
+			catalogue.put(candidate, candidateVersions);
+		}
+
+		return catalogue;
+	}
+
+	/**
+	 * @return the mean time of a search, from the median time of {@link #SEARCHES} searches, in ms
+	 */
+	private static double search(SearchIndex index) {
+		return measure(() -> {
+			for (int i = 0; i < SEARCHES; i++) {
+				index.search(QUERIES[i % QUERIES.length], 200);
+			}
+
+			return null;
+		}) / SEARCHES;
+	}
+
+	private static double measure(Supplier<?> supplier) {
+		for (int i = 0; i < WARMUP; i++) {
+			supplier.get();
+		}
+		long[] times = new long[ITERATIONS];
+		for (int i = 0; i < ITERATIONS; i++) {
+			long start = System.nanoTime();
+			supplier.get();
+			times[i] = System.nanoTime() - start;
+		}
+		Arrays.sort(times);
+
+		return times[ITERATIONS / 2] / 1_000_000d;
+	}
+
+	private static long used() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 4; i++) {
+			System.gc();
+		}
+
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	/**
+	 * Shares the strings the same way as SDKBoyService does.
+	 */
+	private static final class Sharing implements UnaryOperator<CandidateVersion> {
+
+		private final Map<String, String> strings = new HashMap<>();
+
+		@Override
+		public CandidateVersion apply(CandidateVersion version) {
+			return new CandidateVersion(share(version.vendor()), version.version(), share(version.dist()),
+							version.version().equals(version.identifier()) ? version.version() : version.identifier(),
+							version.installed(), version.available());
+		}
+
+		private String share(String string) {
+			return string == null ? null : strings.computeIfAbsent(string, _ -> string);
+		}
+	}
+}
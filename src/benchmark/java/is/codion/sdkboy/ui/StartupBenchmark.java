@@ -0,0 +1,127 @@
+/*
+ * This file is part of SDKBOY.
+ *
+ * SDKBOY is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SDKBOY is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SDKBOY.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (c) 2026, Björn Darri Sigurðsson.
+ */
+package is.codion.sdkboy.ui;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the startup time and the number of classes loaded before the first paint
+ * of the runtime image, with and without the AOT cache, by launching it repeatedly
+ * with {@link SDKBoyPanel#EXIT_AFTER_FIRST_PAINT} set.
+ * <p>
+ * The first argument is the runtime image directory, the second the AOT cache.
+ * <ul>
+ *   <li>{@code benchmark.launches} the number of launches per configuration, default 5
+ * </ul>
+ */
+final class StartupBenchmark {
+
+	private static final String MODULE = "is.codion.sdkboy/is.codion.sdkboy.ui.SDKBoyPanel";
+	private static final String FIRST_PAINT = "First paint: ";
+	private static final String CLASS_LOAD = "[class,load]";
+
+	private StartupBenchmark() {}
+
+	static void main(String[] args) throws Exception {
+		Path image = Path.of(args[0]);
+		Path aotCache = Path.of(args[1]);
+		int launches = Integer.getInteger("benchmark.launches", 5);
+		Path java = image.resolve("bin").resolve("java");
+
+		System.out.printf("%-10s %16s %16s %16s%n", "aot cache", "first paint ms", "wall clock ms", "classes loaded");
+		report("off", launch(java, launches, "-XX:AOTMode=off"), classesLoaded(java, "-XX:AOTMode=off"));
+		if (Files.exists(aotCache)) {
+			String aotOption = "-XX:AOTCache=" + aotCache;
+			report("on", launch(java, launches, aotOption), classesLoaded(java, aotOption));
+		}
+		else {
+			System.out.printf("%-10s skipped, %s not found%n", "on", aotCache);
+		}
+	}
+
+	private static List<long[]> launch(Path java, int launches, String aotOption) throws IOException, InterruptedException {
+		List<long[]> results = new ArrayList<>();
+		// Warm up the file system cache
+		launch(java, aotOption);
+		for (int i = 0; i < launches; i++) {
+			results.add(launch(java, aotOption));
+		}
+
+		return results;
+	}
+
+	private static long[] launch(Path java, String aotOption) throws IOException, InterruptedException {
+		long start = System.nanoTime();
+		List<String> output = run(java, aotOption);
+		long firstPaint = output.stream()
+						.filter(line -> line.startsWith(FIRST_PAINT))
+						.mapToLong(line -> Long.parseLong(line.substring(FIRST_PAINT.length()).replace(" ms", "").trim()))
+						.findFirst()
+						.orElseThrow(() -> new IllegalStateException("First paint not reported, is a display available?"));
+
+		return new long[] {firstPaint, (System.nanoTime() - start) / 1_000_000};
+	}
+
+	private static long classesLoaded(Path java, String aotOption) throws IOException, InterruptedException {
+		return run(java, aotOption, "-Xlog:class+load=info").stream()
+						.filter(line -> line.contains(CLASS_LOAD))
+						.count();
+	}
+
+	private static List<String> run(Path java, String... options) throws IOException, InterruptedException {
+		List<String> command = new ArrayList<>(List.of(java.toString(), "-Xmx32m"));
+		command.addAll(List.of(options));
+		command.addAll(List.of("-D" + SDKBoyPanel.EXIT_AFTER_FIRST_PAINT + "=true", "-m", MODULE));
+		Process process = new ProcessBuilder(command)
+						.redirectErrorStream(true)
+						.start();
+		List<String> output = new ArrayList<>();
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				output.add(line);
+			}
+		}
+		int exitCode = process.waitFor();
+		if (exitCode != 0) {
+			throw new IllegalStateException("Launch failed, exit code " + exitCode + ": " + String.join("\n", output));
+		}
+
+		return output;
+	}
+
+	private static void report(String aotCache, List<long[]> results, long classesLoaded) {
+		System.out.printf("%-10s %16d %16d %16d%n", aotCache, median(results, 0), median(results, 1), classesLoaded);
+	}
+
+	private static long median(List<long[]> results, int index) {
+		return results.stream()
+						.mapToLong(result -> result[index])
+						.sorted()
+						.skip(results.size() / 2)
+						.findFirst()
+						.orElse(0);
+	}
+}
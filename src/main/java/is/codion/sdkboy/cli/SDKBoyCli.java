@@ -0,0 +1,343 @@
+/*
+ * This file is part of SDKBOY.
+ *
+ * SDKBOY is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SDKBOY is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SDKBOY.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (c) 2026, Björn Darri Sigurðsson.
+ */
+package is.codion.sdkboy.cli;
+
+import is.codion.common.reactive.event.Event;
+import is.codion.common.reactive.state.State;
+import is.codion.sdkboy.model.InstallProgress;
+import is.codion.sdkboy.model.Json;
+import is.codion.sdkboy.model.Manifest;
+import is.codion.sdkboy.model.SDKBoyService;
+
+import io.github.jagodevreede.sdkman.api.domain.Candidate;
+import io.github.jagodevreede.sdkman.api.domain.CandidateVersion;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import static java.util.stream.Collectors.joining;
+
+/**
+ * A headless command line, using the same {@link SDKBoyService} as the UI,
+ * without loading any AWT or Swing classes, printing JSON to standard out
+ * and the install progress to standard error.
+ * <pre>
+ * sdkboy-cli list [--installed]
+ * sdkboy-cli versions &lt;candidate&gt;
+ * sdkboy-cli install &lt;candidate&gt; &lt;identifier&gt;
+ * sdkboy-cli uninstall &lt;candidate&gt; &lt;identifier&gt;
+ * sdkboy-cli use &lt;candidate&gt; &lt;identifier&gt;
+ * sdkboy-cli current [candidate]
+ * sdkboy-cli reconcile &lt;manifest&gt; [--dry-run]
+ * sdkboy-cli prune &lt;keep&gt; [candidate...] [--dry-run]
+ * sdkboy-cli env
+ * </pre>
+ */
+// tag::sdkboy_cli[]
+public final class SDKBoyCli {
+
+	static final int OK = 0;
+	static final int FAILED = 1;
+	static final int USAGE = 2;
+	static final int NOT_FOUND = 3;
+
+	private static final String SHARED_CACHE = "SDKBOY_SHARED_CACHE";
+
+	private static final String USAGE_TEXT = """
+					Usage: sdkboy-cli <command> [arguments]
+
+					  list [--installed]                 List candidates
+					  versions <candidate>               List the versions of a candidate
+					  install <candidate> <identifier>   Install a version
+					  uninstall <candidate> <identifier> Uninstall a version
+					  use <candidate> <identifier>       Set the global version
+					  current [candidate]                Show the global version(s)
+					  reconcile <manifest> [--dry-run]   Install, use and uninstall according to a manifest
+					  prune <keep> [candidate...] [--dry-run]
+					                                     Uninstall all but the latest <keep> patch releases
+					                                     of each vendor and major version, except the used ones
+					  env                                Write the shell environment snippet
+
+					Exit codes: 0 ok, 1 failed, 2 usage, 3 not found
+
+					Environment:
+					  SDKBOY_SHARED_CACHE                Shared archive cache directory, such as an NFS mount""";
+
+	private final SDKBoyService service;
+
+	SDKBoyCli(SDKBoyService service) {
+		this.service = service;
+	}
+
+	/**
+	 * @param args the command and its arguments
+	 * @return the exit code
+	 */
+	int run(List<String> args) {
+		if (args.isEmpty()) {
+			return usage();
+		}
+		try {
+			List<String> arguments = args.subList(1, args.size());
+			return switch (args.getFirst()) {
+				case "list" -> list(arguments);
+				case "versions" -> versions(arguments);
+				case "install" -> install(arguments);
+				case "uninstall" -> uninstall(arguments);
+				case "use" -> use(arguments);
+				case "current" -> current(arguments);
+				case "reconcile" -> reconcile(arguments);
+				case "prune" -> prune(arguments);
+				case "env" -> env(arguments);
+				case "help", "--help", "-h" -> {
+					System.out.println(USAGE_TEXT);
+					yield OK;
+				}
+				default -> usage();
+			};
+		}
+		catch (Exception e) {
+			return error(FAILED, e.getMessage() == null ? e.toString() : e.getMessage());
+		}
+	}
+
+	private int list(List<String> arguments) {
+		if (arguments.size() > 1 || (arguments.size() == 1 && !arguments.getFirst().equals("--installed"))) {
+			return usage();
+		}
+		boolean installedOnly = arguments.size() == 1;
+		System.out.println(service.candidates().stream()
+						.map(candidate -> new CandidateInstalled(candidate, service.installed(candidate.id())))
+						.filter(candidate -> !installedOnly || candidate.installed() > 0)
+						.map(CandidateInstalled::toJson)
+						.collect(joining(",\n  ", "[\n  ", "\n]")));
+
+		return OK;
+	}
+
+	private int versions(List<String> arguments) {
+		if (arguments.size() != 1) {
+			return usage();
+		}
+		String candidate = arguments.getFirst();
+		List<CandidateVersion> versions = service.versions(candidate);
+		if (versions.isEmpty()) {
+			return error(NOT_FOUND, "Unknown candidate: " + candidate);
+		}
+		String current = service.current(candidate).orElse(null);
+		System.out.println(versions.stream()
+						.map(version -> versionJson(version, version.identifier().equals(current)))
+						.collect(joining(",\n  ", "[\n  ", "\n]")));
+
+		return OK;
+	}
+
+	private int install(List<String> arguments) {
+		if (arguments.size() != 2) {
+			return usage();
+		}
+		String candidate = arguments.get(0);
+		String identifier = arguments.get(1);
+		if (service.isInstalled(candidate, identifier)) {
+			return result(candidate, identifier, "installed", false);
+		}
+		if (service.version(candidate, identifier).isEmpty()) {
+			return error(NOT_FOUND, "Unknown version: " + candidate + " " + identifier);
+		}
+		service.install(candidate, identifier, new ProgressPrinter(), State.state(), Event.event());
+
+		return result(candidate, identifier, "installed", true);
+	}
+
+	private int uninstall(List<String> arguments) {
+		if (arguments.size() != 2) {
+			return usage();
+		}
+		String candidate = arguments.get(0);
+		String identifier = arguments.get(1);
+		if (!service.isInstalled(candidate, identifier)) {
+			return result(candidate, identifier, "uninstalled", false);
+		}
+		service.uninstall(candidate, identifier);
+
+		return result(candidate, identifier, "uninstalled", true);
+	}
+
+	private int use(List<String> arguments) {
+		if (arguments.size() != 2) {
+			return usage();
+		}
+		String candidate = arguments.get(0);
+		String identifier = arguments.get(1);
+		if (!service.isInstalled(candidate, identifier)) {
+			return error(NOT_FOUND, "Not installed: " + candidate + " " + identifier);
+		}
+		if (service.current(candidate).filter(identifier::equals).isPresent()) {
+			return result(candidate, identifier, "used", false);
+		}
+		service.use(candidate, identifier);
+
+		return result(candidate, identifier, "used", true);
+	}
+
+	private int current(List<String> arguments) {
+		if (arguments.size() > 1) {
+			return usage();
+		}
+		List<String> candidates = arguments.isEmpty() ? service.installedCandidates() : arguments;
+		System.out.println(candidates.stream()
+						.map(candidate -> Json.string(candidate) + ": " + Json.string(service.current(candidate).orElse(null)))
+						.collect(joining(",\n  ", "{\n  ", "\n}")));
+
+		return OK;
+	}
+
+	private int reconcile(List<String> arguments) {
+		if (arguments.isEmpty() || arguments.size() > 2 || (arguments.size() == 2 && !arguments.get(1).equals("--dry-run"))) {
+			return usage();
+		}
+		Path file = Path.of(arguments.getFirst());
+		if (!Files.isRegularFile(file)) {
+			return error(NOT_FOUND, "Manifest not found: " + file);
+		}
+		Manifest.Plan plan = service.plan(Manifest.parse(file));
+		boolean apply = arguments.size() == 1 && !plan.isEmpty();
+		if (apply) {
+			Map<Manifest.Action, ProgressPrinter> printers = new ConcurrentHashMap<>();
+			service.reconcile(plan, (action, progress) ->
+							printers.computeIfAbsent(action, _ -> new ProgressPrinter(action + ": ")).accept(progress), Event.event());
+		}
+		System.out.println("{\n  \"plan\": " + plan.toJson().replace("\n", "\n  ") + ",\n  \"changed\": " + apply + "\n}");
+
+		return OK;
+	}
+
+	private int prune(List<String> arguments) {
+		boolean dryRun = !arguments.isEmpty() && arguments.getLast().equals("--dry-run");
+		if (arguments.size() < (dryRun ? 2 : 1) || !arguments.getFirst().matches("\\d+")) {
+			return usage();
+		}
+		int keep = Integer.parseInt(arguments.getFirst());
+		List<String> candidates = arguments.subList(1, arguments.size() - (dryRun ? 1 : 0));
+		Manifest.Plan plan = service.prunePlan(candidates.isEmpty() ? service.installedCandidates() : candidates, keep);
+		boolean apply = !dryRun && !plan.isEmpty();
+		if (apply) {
+			Map<Manifest.Action, ProgressPrinter> printers = new ConcurrentHashMap<>();
+			service.prune(plan, (action, progress) ->
+							printers.computeIfAbsent(action, _ -> new ProgressPrinter(action + ": ")).accept(progress));
+		}
+		System.out.println("{\n  \"plan\": " + plan.toJson().replace("\n", "\n  ") + ",\n  \"changed\": " + apply + "\n}");
+
+		return OK;
+	}
+
+	private int env(List<String> arguments) {
+		if (!arguments.isEmpty()) {
+			return usage();
+		}
+		System.out.println("{\"file\": " + Json.string(service.shellEnvironment().toString()) + "}");
+
+		return OK;
+	}
+
+	private static int result(String candidate, String identifier, String action, boolean changed) {
+		System.out.println("{\"candidate\": " + Json.string(candidate) +
+						", \"identifier\": " + Json.string(identifier) +
+						", \"action\": " + Json.string(action) +
+						", \"changed\": " + changed + "}");
+
+		return OK;
+	}
+
+	private static String versionJson(CandidateVersion version, boolean current) {
+		return "{\"identifier\": " + Json.string(version.identifier()) +
+						", \"version\": " + Json.string(version.version()) +
+						", \"vendor\": " + Json.string(version.vendor()) +
+						", \"installed\": " + version.installed() +
+						", \"downloaded\": " + version.available() +
+						", \"current\": " + current + "}";
+	}
+
+	private static int usage() {
+		System.err.println(USAGE_TEXT);
+
+		return USAGE;
+	}
+
+	private static int error(int exitCode, String message) {
+		System.out.println("{\"error\": " + Json.string(message) + "}");
+		System.err.println(message);
+
+		return exitCode;
+	}
+
+	private record CandidateInstalled(Candidate candidate, int installed) {
+
+		private String toJson() {
+			return "{\"id\": " + Json.string(candidate.id()) +
+							", \"name\": " + Json.string(candidate.name()) +
+							", \"installed\": " + installed + "}";
+		}
+	}
+
+	/**
+	 * Prints the install progress to standard error, on state change and at most once a second.
+	 */
+	private static final class ProgressPrinter implements Consumer<InstallProgress> {
+
+		private static final long INTERVAL = 1_000_000_000L;
+
+		private final String prefix;
+
+		private String state;
+		private long lastPrinted;
+
+		private ProgressPrinter() {
+			this("");
+		}
+
+		private ProgressPrinter(String prefix) {
+			this.prefix = prefix;
+		}
+
+		@Override
+		public synchronized void accept(InstallProgress progress) {
+			long now = System.nanoTime();
+			if (!progress.state().equals(state) || now - lastPrinted >= INTERVAL) {
+				state = progress.state();
+				lastPrinted = now;
+				System.err.println(prefix + progress);
+			}
+		}
+	}
+
+	static void main(String[] args) {
+		SDKBoyService service = new SDKBoyService();
+		String sharedCache = System.getenv(SHARED_CACHE);
+		if (sharedCache != null && !sharedCache.isBlank()) {
+			service.sharedCache().directory(Path.of(sharedCache));
+		}
+		System.exit(new SDKBoyCli(service).run(List.of(args)));
+	}
+}
+// end::sdkboy_cli[]
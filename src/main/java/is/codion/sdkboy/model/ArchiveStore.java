@@ -0,0 +1,183 @@
+/*
+ * This file is part of SDKBOY.
+ *
+ * SDKBOY is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SDKBOY is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SDKBOY.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (c) 2026, Björn Darri Sigurðsson.
+ */
+package is.codion.sdkboy.model;
+
+import java.io.File;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Manages the archives kept after installing, when downloads are kept available, evicting the least
+ * recently used ones once their total size exceeds the capacity. The access times are recorded in a small
+ * index, {@code SDKMAN_HOME/var/sdkboy-archives.properties}, falling back to the modification time of
+ * archives not in the index, such as ones downloaded by SDKMAN itself. The archives of installed
+ * versions can be pinned, so they are never evicted.
+ */
+// tag::archive_store[]
+public final class ArchiveStore {
+
+	static final String FILE_NAME = "sdkboy-archives.properties";
+
+	private static final String ARCHIVE_SUFFIX = ".zip";
+
+	private final Path directory;
+	private final PropertiesFile file;
+	private final Metrics metrics;
+	private final Map<String, Long> accessed = new ConcurrentHashMap<>();
+
+	private volatile long capacity;
+	private volatile boolean pinInstalled = true;
+
+	ArchiveStore(Path directory, Path file, Metrics metrics) {
+		this.directory = directory;
+		this.file = new PropertiesFile(file, "Archive access times, recorded by SDKBOY");
+		this.metrics = metrics;
+		load();
+	}
+
+	/**
+	 * @param bytes the total size of the kept archives, above which the least recently used ones are evicted, 0 for unlimited
+	 */
+	public void capacity(long bytes) {
+		capacity = Math.max(0, bytes);
+	}
+
+	/**
+	 * @return the capacity in bytes, 0 for unlimited
+	 */
+	public long capacity() {
+		return capacity;
+	}
+
+	/**
+	 * @param pinInstalled true if the archives of installed versions should never be evicted
+	 */
+	public void pinInstalled(boolean pinInstalled) {
+		this.pinInstalled = pinInstalled;
+	}
+
+	/**
+	 * @return the total size of the archives in bytes
+	 */
+	public long size() {
+		return archives().stream()
+						.mapToLong(Archive::size)
+						.sum();
+	}
+
+	/**
+	 * Records an access of the given archive, such as when installing from it
+	 * @param archive the archive
+	 */
+	void accessed(Path archive) {
+		accessed.put(archive.getFileName().toString(), System.currentTimeMillis());
+		try {
+			save();
+		}
+		catch (UncheckedIOException e) {
+			// Not worth failing an install over, the modification time serves as a fallback
+			metrics.failure("Saving the archive access times", e);
+		}
+	}
+
+	/**
+	 * Evicts the least recently used archives until their total size is within the capacity.
+	 * @param installed tests whether an archive belongs to an installed version
+	 * @param delete deletes an archive, returning false if it could not be deleted, such as when in use
+	 * @return the result
+	 */
+	Sweep sweep(Predicate<Path> installed, Predicate<Path> delete) {
+		long limit = capacity;
+		List<Archive> archives = archives();
+		long size = archives.stream()
+						.mapToLong(Archive::size)
+						.sum();
+		int evicted = 0;
+		long evictedBytes = 0;
+		if (limit > 0) {
+			for (Archive archive : archives) {
+				if (size <= limit) {
+					break;
+				}
+				if (!(pinInstalled && installed.test(archive.path())) && delete.test(archive.path())) {
+					accessed.remove(archive.path().getFileName().toString());
+					size -= archive.size();
+					evicted++;
+					evictedBytes += archive.size();
+				}
+			}
+		}
+		// Forget the ones deleted by other means, such as an uninstall
+		accessed.keySet().removeIf(name -> !Files.exists(directory.resolve(name)));
+		save();
+		metrics.counter(Metrics.ARCHIVE_EVICTED).add(evicted);
+		metrics.counter(Metrics.ARCHIVE_EVICTED_BYTES).add(evictedBytes);
+
+		return new Sweep(evicted, evictedBytes, size);
+	}
+
+	/**
+	 * @param evicted the number of archives evicted
+	 * @param evictedBytes the total size of the evicted archives
+	 * @param remainingBytes the total size of the remaining archives
+	 */
+	public record Sweep(int evicted, long evictedBytes, long remainingBytes) {}
+
+	/**
+	 * @return the archives, the least recently used first
+	 */
+	private List<Archive> archives() {
+		File[] files = directory.toFile().listFiles((_, name) -> name.endsWith(ARCHIVE_SUFFIX));
+
+		return files == null ? List.of() : Stream.of(files)
+						.filter(File::isFile)
+						.map(archive -> new Archive(archive.toPath(), archive.length(),
+										accessed.getOrDefault(archive.getName(), archive.lastModified())))
+						.sorted(Comparator.comparingLong(Archive::accessed))
+						.toList();
+	}
+
+	private void load() {
+		try {
+			Properties properties = file.load();
+			properties.stringPropertyNames().forEach(name -> accessed.put(name, Long.parseLong(properties.getProperty(name))));
+		}
+		catch (UncheckedIOException | NumberFormatException e) {
+			// Falls back to the modification times
+			accessed.clear();
+		}
+	}
+
+	private synchronized void save() {
+		Properties properties = new Properties();
+		accessed.forEach((name, time) -> properties.setProperty(name, Long.toString(time)));
+		file.store(properties);
+	}
+
+	private record Archive(Path path, long size, long accessed) {}
+}
+// end::archive_store[]
@@ -0,0 +1,253 @@
+/*
+ * This file is part of SDKBOY.
+ *
+ * SDKBOY is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SDKBOY is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SDKBOY.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (c) 2026, Björn Darri Sigurðsson.
+ */
+package is.codion.sdkboy.model;
+
+import is.codion.common.model.CancelException;
+import is.codion.common.reactive.observer.Observer;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Limits the download bandwidth, using token buckets, one shared by all downloads and one for each download,
+ * and defers large downloads to an off-peak window. The limits apply to downloads in progress as well.
+ */
+// tag::bandwidth[]
+public final class Bandwidth {
+
+	private static final long MAX_PAUSE_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+	private static final Duration MAX_DEFERRED_WAIT = Duration.ofMinutes(1);
+
+	private final Metrics metrics;
+	private final TokenBucket total = new TokenBucket();
+
+	private volatile long downloadLimit;
+	private volatile OffPeak offPeak;
+
+	Bandwidth(Metrics metrics) {
+		this.metrics = metrics;
+	}
+
+	/**
+	 * @param bytesPerSecond the bandwidth shared by all downloads, 0 for unlimited
+	 */
+	public void limit(long bytesPerSecond) {
+		total.rate(bytesPerSecond);
+	}
+
+	/**
+	 * @param bytesPerSecond the bandwidth of each download, 0 for unlimited
+	 */
+	public void downloadLimit(long bytesPerSecond) {
+		downloadLimit = Math.max(0, bytesPerSecond);
+	}
+
+	/**
+	 * @param offPeak the off-peak window to defer large downloads to, null to not defer any downloads
+	 */
+	public void offPeak(OffPeak offPeak) {
+		this.offPeak = offPeak;
+	}
+
+	/**
+	 * @param bytes provides the download size in bytes, -1 if unknown, only called when outside the off-peak window
+	 * @return true if the download should be deferred to the off-peak window, right now
+	 */
+	boolean defer(LongSupplier bytes) {
+		OffPeak window = offPeak;
+
+		return window != null && !window.includes(LocalTime.now()) && bytes.getAsLong() > window.threshold();
+	}
+
+	/**
+	 * Waits until the off-peak window starts, or until it is disabled
+	 * @param progress receives the progress
+	 * @param cancel cancels the wait
+	 * @throws CancelException in case the wait was cancelled
+	 */
+	void awaitOffPeak(Consumer<InstallProgress> progress, Observer<?> cancel) {
+		CountDownLatch cancelled = new CountDownLatch(1);
+		Runnable cancelTask = cancelled::countDown;
+		cancel.addListener(cancelTask);
+		Metrics.Counter deferred = metrics.counter(Metrics.DOWNLOAD_DEFERRED);
+		deferred.increment();
+		try {
+			OffPeak window = offPeak;
+			// Re-checked periodically, in case the window is changed or disabled while waiting
+			while (window != null && !window.includes(LocalTime.now())) {
+				progress.accept(InstallProgress.indeterminate("Deferred until " + window.start()));
+				Duration wait = window.untilStart(LocalTime.now());
+				if (cancelled.await(Math.min(wait.toMillis(), MAX_DEFERRED_WAIT.toMillis()) + 1, TimeUnit.MILLISECONDS)) {
+					throw new CancelException();
+				}
+				window = offPeak;
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new CancelException();
+		}
+		finally {
+			deferred.add(-1);
+			// The cancel Observer may outlive this wait
+			cancel.removeListener(cancelTask);
+		}
+	}
+
+	/**
+	 * @return a new throttle for a single download, limited by both the total and the download limit
+	 */
+	Throttle throttle() {
+		return new Throttle();
+	}
+
+	/**
+	 * An off-peak window, which may span midnight.
+	 * @param start the start of the window
+	 * @param end the end of the window, exclusive
+	 * @param threshold downloads larger than this number of bytes are deferred to the window
+	 */
+	public record OffPeak(LocalTime start, LocalTime end, long threshold) {
+
+		public OffPeak {
+			requireNonNull(start);
+			requireNonNull(end);
+		}
+
+		/**
+		 * @param time the time
+		 * @return true if the given time is within this window
+		 */
+		public boolean includes(LocalTime time) {
+			if (start.isBefore(end)) {
+				return !time.isBefore(start) && time.isBefore(end);
+			}
+
+			return !time.isBefore(start) || time.isBefore(end);
+		}
+
+		private Duration untilStart(LocalTime time) {
+			Duration until = Duration.between(time, start);
+
+			return until.isNegative() ? until.plusDays(1) : until;
+		}
+	}
+
+	final class Throttle {
+
+		private final TokenBucket download = new TokenBucket();
+
+		private Throttle() {}
+
+		/**
+		 * @return true if the bandwidth is limited
+		 */
+		boolean limited() {
+			return downloadLimit > 0 || total.limited();
+		}
+
+		/**
+		 * Blocks until the given number of bytes fit within the limits
+		 * @param bytes the number of bytes transferred
+		 * @param cancelled checked while blocked
+		 * @throws CancelException in case cancelled while blocked
+		 */
+		void acquire(int bytes, BooleanSupplier cancelled) {
+			download.rate(downloadLimit);
+			long pauseNanos = Math.max(total.reserve(bytes), download.reserve(bytes));
+			if (pauseNanos > 0) {
+				metrics.counter(Metrics.DOWNLOAD_THROTTLED).add(TimeUnit.NANOSECONDS.toMillis(pauseNanos));
+			}
+			long deadline = System.nanoTime() + pauseNanos;
+			for (long remaining = pauseNanos; remaining > 0; remaining = deadline - System.nanoTime()) {
+				if (cancelled.getAsBoolean()) {
+					throw new CancelException();
+				}
+				try {
+					TimeUnit.NANOSECONDS.sleep(Math.min(remaining, MAX_PAUSE_NANOS));
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new CancelException();
+				}
+			}
+		}
+	}
+
+	/**
+	 * A token bucket, holding at most a tenth of a second worth of tokens, so that an idle
+	 * period does not allow a burst above the rate. A reservation may overdraw the bucket,
+	 * in which case the caller pauses until the debt is paid, and so does the next one.
+	 */
+	private static final class TokenBucket {
+
+		private static final long BURST_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+		private long rate;
+		private double tokens;
+		private long refilled = System.nanoTime();
+
+		private synchronized void rate(long bytesPerSecond) {
+			long newRate = Math.max(0, bytesPerSecond);
+			if (newRate != rate) {
+				refill();
+				rate = newRate;
+				tokens = Math.min(tokens, capacity());
+			}
+		}
+
+		private synchronized boolean limited() {
+			return rate > 0;
+		}
+
+		/**
+		 * @param bytes the number of bytes to reserve
+		 * @return the number of nanoseconds to pause before the bytes are within the rate, 0 if unlimited
+		 */
+		private synchronized long reserve(long bytes) {
+			if (rate == 0) {
+				return 0;
+			}
+			refill();
+			tokens -= bytes;
+
+			return tokens >= 0 ? 0 : (long) (-tokens * TimeUnit.SECONDS.toNanos(1) / rate);
+		}
+
+		private void refill() {
+			long now = System.nanoTime();
+			if (rate > 0) {
+				tokens = Math.min(capacity(), tokens + (now - refilled) * (double) rate / TimeUnit.SECONDS.toNanos(1));
+			}
+			refilled = now;
+		}
+
+		private double capacity() {
+			return rate * (double) BURST_NANOS / TimeUnit.SECONDS.toNanos(1);
+		}
+	}
+}
+// end::bandwidth[]
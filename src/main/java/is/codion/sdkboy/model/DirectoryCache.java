@@ -0,0 +1,146 @@
+/*
+ * This file is part of SDKBOY.
+ *
+ * SDKBOY is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SDKBOY is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SDKBOY.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (c) 2026, Björn Darri Sigurðsson.
+ */
+package is.codion.sdkboy.model;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import static java.nio.file.LinkOption.NOFOLLOW_LINKS;
+
+/**
+ * Values computed for directories, cached by directory, along with the directory modification time, and persisted
+ * to a {@link PropertiesFile}, so the value of a directory is only computed again once modified. Only the modification
+ * time of the directory itself is checked, which suits installed versions, since they are replaced as a whole,
+ * rather than modified in place. The directories removed, such as by an uninstall, are forgotten when saving.
+ * @param <V> the value type
+ */
+// tag::directory_cache[]
+final class DirectoryCache<V> {
+
+	private static final String SEPARATOR = ",";
+
+	private final PropertiesFile file;
+	private final Metrics metrics;
+	private final Function<String, V> decode;
+	private final Function<V, String> encode;
+	private final Map<String, Entry<V>> entries = new ConcurrentHashMap<>();
+
+	/**
+	 * @param file the file to persist the values to
+	 * @param metrics reports failures to save the values
+	 * @param decode decodes a value stored by {@code encode}
+	 * @param encode encodes a value for storing
+	 */
+	DirectoryCache(PropertiesFile file, Metrics metrics, Function<String, V> decode, Function<V, String> encode) {
+		this.file = file;
+		this.metrics = metrics;
+		this.decode = decode;
+		this.encode = encode;
+		load();
+	}
+
+	/**
+	 * Returns the values of the given directories, computing the ones modified since last time.
+	 * @param directories the directories
+	 * @param compute computes the values of the modified directories, all at once
+	 * @return the value of each directory, excluding the ones that do not exist
+	 */
+	Map<Path, V> get(Collection<Path> directories, Function<Collection<Path>, Map<Path, V>> compute) {
+		Map<Path, V> values = new HashMap<>();
+		Map<Path, Long> modified = new HashMap<>();
+		for (Path directory : directories) {
+			long lastModified = lastModified(directory);
+			if (lastModified >= 0) {
+				Entry<V> entry = entries.get(directory.toString());
+				if (entry != null && entry.lastModified() == lastModified) {
+					values.put(directory, entry.value());
+				}
+				else {
+					modified.put(directory, lastModified);
+				}
+			}
+		}
+		if (!modified.isEmpty()) {
+			compute.apply(modified.keySet()).forEach((directory, value) -> {
+				values.put(directory, value);
+				entries.put(directory.toString(), new Entry<>(modified.get(directory), value));
+			});
+			try {
+				save();
+			}
+			catch (UncheckedIOException e) {
+				// Computed again next time
+				metrics.failure("Saving " + file.path().getFileName(), e);
+			}
+		}
+
+		return values;
+	}
+
+	private void load() {
+		try {
+			Properties properties = file.load();
+			properties.stringPropertyNames().forEach(directory -> {
+				String entry = properties.getProperty(directory);
+				int separator = entry.indexOf(SEPARATOR);
+				entries.put(directory, new Entry<>(Long.parseLong(entry.substring(0, separator)),
+								decode.apply(entry.substring(separator + 1))));
+			});
+		}
+		catch (RuntimeException e) {
+			// Only a cache, start over
+			entries.clear();
+		}
+	}
+
+	private synchronized void save() {
+		// Forget the ones removed, such as by an uninstall
+		entries.keySet().removeIf(directory -> !Files.isDirectory(Path.of(directory)));
+		Properties properties = new Properties();
+		entries.forEach((directory, entry) ->
+						properties.setProperty(directory, entry.lastModified() + SEPARATOR + encode.apply(entry.value())));
+		file.store(properties);
+	}
+
+	/**
+	 * @return the last modified time of the given directory, -1 if it does not exist
+	 */
+	private static long lastModified(Path directory) {
+		try {
+			BasicFileAttributes attributes = Files.readAttributes(directory, BasicFileAttributes.class, NOFOLLOW_LINKS);
+
+			return attributes.isDirectory() ? attributes.lastModifiedTime().toMillis() : -1;
+		}
+		catch (IOException e) {
+			return -1;
+		}
+	}
+
+	private record Entry<V>(long lastModified, V value) {}
+}
+// end::directory_cache[]
@@ -0,0 +1,129 @@
+/*
+ * This file is part of SDKBOY.
+ *
+ * SDKBOY is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SDKBOY is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SDKBOY.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (c) 2026, Björn Darri Sigurðsson.
+ */
+package is.codion.sdkboy.model;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+import static java.nio.file.LinkOption.NOFOLLOW_LINKS;
+import static java.util.stream.Collectors.toMap;
+
+/**
+ * Computes the disk usage of directories, walking them in parallel, using fork/join.
+ * The results are cached by directory modification time, see {@link DirectoryCache}, and persisted to
+ * {@code SDKMAN_HOME/var/sdkboy-sizes.properties}, so a directory is only walked again once modified.
+ */
+// tag::disk_usage[]
+public final class DiskUsage {
+
+	static final String FILE_NAME = "sdkboy-sizes.properties";
+
+	private final Metrics metrics;
+	private final DirectoryCache<Long> cache;
+
+	DiskUsage(Path file, Metrics metrics) {
+		this.metrics = metrics;
+		this.cache = new DirectoryCache<>(new PropertiesFile(file, "Directory modification time and size in bytes, recorded by SDKBOY"),
+						metrics, Long::parseLong, String::valueOf);
+	}
+
+	/**
+	 * Returns the size of the given directories, walking the ones modified since last time in parallel.
+	 * @param directories the directories
+	 * @return the size of each directory in bytes, excluding the ones that do not exist
+	 */
+	Map<Path, Long> sizes(Collection<Path> directories) {
+		return cache.get(directories, this::walk);
+	}
+
+	/**
+	 * @param bytes the size in bytes
+	 */
+	public record Size(long bytes) implements Comparable<Size> {
+
+		@Override
+		public int compareTo(Size size) {
+			return Long.compare(bytes, size.bytes);
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%.1f MB", bytes / (1024d * 1024d));
+		}
+	}
+
+	private Map<Path, Long> walk(Collection<Path> directories) {
+		List<Walk> walks = directories.stream()
+						.map(Walk::new)
+						.toList();
+		metrics.time(Metrics.DISK_USAGE, () -> ForkJoinTask.invokeAll(walks));
+
+		return walks.stream()
+						.collect(toMap(walk -> walk.directory, Walk::join));
+	}
+
+	/**
+	 * Sums the size of the files in a directory, forking a walk for each subdirectory, without following links.
+	 */
+	private static final class Walk extends RecursiveTask<Long> {
+
+		private final Path directory;
+
+		private Walk(Path directory) {
+			this.directory = directory;
+		}
+
+		@Override
+		protected Long compute() {
+			long bytes = 0;
+			List<Walk> subdirectories = new ArrayList<>();
+			try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+				for (Path entry : entries) {
+					BasicFileAttributes attributes = Files.readAttributes(entry, BasicFileAttributes.class, NOFOLLOW_LINKS);
+					if (attributes.isDirectory()) {
+						Walk walk = new Walk(entry);
+						walk.fork();
+						subdirectories.add(walk);
+					}
+					else {
+						bytes += attributes.size();
+					}
+				}
+			}
+			catch (IOException e) {
+				// Unreadable, counts what was read
+			}
+			for (Walk walk : subdirectories) {
+				bytes += walk.join();
+			}
+
+			return bytes;
+		}
+	}
+}
+// end::disk_usage[]
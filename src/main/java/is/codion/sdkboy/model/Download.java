@@ -0,0 +1,366 @@
+/*
+ * This file is part of SDKBOY.
+ *
+ * SDKBOY is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SDKBOY is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SDKBOY.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (c) 2026, Björn Darri Sigurðsson.
+ */
+package is.codion.sdkboy.model;
+
+import is.codion.common.model.CancelException;
+
+import io.github.jagodevreede.sdkman.api.ProgressInformation;
+import io.github.jagodevreede.sdkman.api.files.PostProcessor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * Downloads a version archive, replacing {@link io.github.jagodevreede.sdkman.api.http.DownloadTask},
+ * which only reports a percentage, with one reporting the bytes transferred and the throughput.
+ * <p>
+ * The download starts from the fastest source, see {@link Mirrors}. In case its throughput stays below the
+ * hedge threshold for the hedge delay, a hedged request is sent to the next source, and after another delay
+ * the one which transferred more in the meantime is kept, while the other one is cancelled. In case a source
+ * fails, the download fails over to the next one. Hedging is disabled while the bandwidth is limited,
+ * since the limit, rather than the source, then determines the throughput.
+ */
+final class Download {
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final long HEDGE_DELAY_MILLIS = 2_000;
+	private static final int HEAD_TIMEOUT_MILLIS = 10_000;
+
+	private final String path;
+	private final Mirrors mirrors;
+	private final Path tempFile;
+	private final Path destination;
+	private final String identifier;
+	private final Bandwidth.Throttle throttle;
+	private final Metrics metrics;
+
+	private volatile boolean cancelled;
+	private volatile PostProcessor postProcessor;
+	private volatile Attempt leader;
+
+	/**
+	 * @param path the download path, relative to the source base url
+	 * @param mirrors the download sources
+	 * @param tempFile the file to download to
+	 * @param destination the archive destination
+	 * @param identifier the candidate-version identifier, used when repacking
+	 * @param throttle limits the bandwidth
+	 * @param metrics the metrics
+	 */
+	Download(String path, Mirrors mirrors, Path tempFile, Path destination, String identifier,
+					 Bandwidth.Throttle throttle, Metrics metrics) {
+		this.path = path;
+		this.mirrors = mirrors;
+		this.tempFile = tempFile;
+		this.destination = destination;
+		this.identifier = identifier;
+		this.throttle = throttle;
+		this.metrics = metrics;
+	}
+
+	/**
+	 * @param url the download url
+	 * @return the size of the download in bytes, -1 if unknown, such as when the request fails or times out
+	 */
+	static long contentLength(String url) {
+		try {
+			HttpURLConnection connection = (HttpURLConnection) URI.create(url).toURL().openConnection();
+			try {
+				connection.setRequestMethod("HEAD");
+				connection.setConnectTimeout(HEAD_TIMEOUT_MILLIS);
+				connection.setReadTimeout(HEAD_TIMEOUT_MILLIS);
+
+				return connection.getResponseCode() == HttpURLConnection.HTTP_OK ? connection.getContentLengthLong() : -1;
+			}
+			finally {
+				connection.disconnect();
+			}
+		}
+		catch (IOException e) {
+			// Unknown, the download is then not deferred, and fails on its own if the source is unreachable
+			return -1;
+		}
+	}
+
+	/**
+	 * @param progress receives the progress
+	 * @return the number of bytes downloaded
+	 * @throws CancelException in case the download was cancelled
+	 */
+	long download(Consumer<InstallProgress> progress) {
+		try {
+			Files.createDirectories(tempFile.getParent());
+			Files.createDirectories(destination.getParent());
+			long bytes = transfer(progress);
+			postProcessor = new PostProcessor(new StateProgress(progress));
+			postProcessor.postProcess(tempFile.toFile(), identifier);
+			if (cancelled) {
+				throw new CancelException();
+			}
+			Files.move(tempFile, destination, REPLACE_EXISTING);
+
+			return bytes;
+		}
+		catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+		finally {
+			if (cancelled) {
+				tempFile.toFile().delete();
+			}
+		}
+	}
+
+	/**
+	 * @return the url of the source currently downloading, or the one which completed the download
+	 */
+	String url() {
+		Attempt attempt = leader;
+
+		return attempt == null ? mirrors.sources().getFirst() + path : attempt.source + path;
+	}
+
+	void cancel() {
+		cancelled = true;
+		PostProcessor processor = postProcessor;
+		if (processor != null) {
+			processor.cancel();
+		}
+	}
+
+	private long transfer(Consumer<InstallProgress> progress) throws IOException {
+		List<String> sources = mirrors.sources();
+		List<Attempt> attempts = new ArrayList<>();
+		int next = 0;
+		leader = start(sources.get(next++), attempts.size(), progress);
+		attempts.add(leader);
+		try {
+			while (true) {
+				Attempt current = leader;
+				try {
+					current.result.get(HEDGE_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+					Files.move(current.file, tempFile, REPLACE_EXISTING);
+
+					return current.bytes;
+				}
+				catch (TimeoutException e) {
+					if (next < sources.size() && hedge(current)) {
+						Attempt hedged = start(sources.get(next++), attempts.size(), progress);
+						attempts.add(hedged);
+						metrics.counter(Metrics.DOWNLOAD_HEDGED).increment();
+						leader = race(current, hedged);
+					}
+				}
+				catch (ExecutionException e) {
+					if (e.getCause() instanceof CancelException || cancelled || next == sources.size()) {
+						throw e.getCause() instanceof RuntimeException runtime ? runtime : new RuntimeException(e.getCause());
+					}
+					// Fail over to the next source
+					leader = start(sources.get(next++), attempts.size(), progress);
+					attempts.add(leader);
+				}
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new CancelException();
+		}
+		finally {
+			// The file of a successful attempt has already been moved
+			for (Attempt attempt : attempts) {
+				attempt.cancel();
+				attempt.result.handle((_, _) -> attempt.file.toFile().delete());
+			}
+		}
+	}
+
+	private boolean hedge(Attempt attempt) {
+		long threshold = mirrors.hedgeThreshold();
+
+		return threshold > 0 && !throttle.limited() && attempt.throughput() < threshold;
+	}
+
+	/**
+	 * Waits for the hedge delay, or until either attempt completes,
+	 * and cancels the one which transferred less in the meantime.
+	 * @return the winner
+	 */
+	private Attempt race(Attempt current, Attempt hedged) throws InterruptedException {
+		long currentBytes = current.bytes;
+		try {
+			CompletableFuture.anyOf(current.result, hedged.result).get(HEDGE_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+		}
+		catch (TimeoutException | ExecutionException e) {
+			// Decided below
+		}
+		Attempt winner;
+		if (hedged.succeeded()) {
+			winner = hedged;
+		}
+		else if (current.succeeded()) {
+			winner = current;
+		}
+		else if (current.result.isCompletedExceptionally()) {
+			winner = hedged;
+		}
+		else if (hedged.result.isCompletedExceptionally()) {
+			winner = current;
+		}
+		else {
+			winner = hedged.bytes > current.bytes - currentBytes ? hedged : current;
+		}
+		Attempt loser = winner == current ? hedged : current;
+		if (!loser.result.isDone()) {
+			long throughput = loser.throughput();
+			loser.cancel();
+			mirrors.record(loser.source, throughput);
+		}
+
+		return winner;
+	}
+
+	private Attempt start(String source, int index, Consumer<InstallProgress> progress) {
+		Attempt attempt = new Attempt(source, tempFile.resolveSibling(tempFile.getFileName() + "." + index));
+		Thread.ofVirtual()
+						.name("SDKBOY download " + identifier)
+						.start(TaskScheduler.inheriting(() -> attempt.run(progress)));
+
+		return attempt;
+	}
+
+	private final class Attempt {
+
+		private final String source;
+		private final Path file;
+		private final CompletableFuture<Long> result = new CompletableFuture<>();
+		private final long started = System.nanoTime();
+
+		private volatile long bytes;
+		private volatile boolean cancelled;
+		private volatile HttpURLConnection connection;
+
+		private Attempt(String source, Path file) {
+			this.source = source;
+			this.file = file;
+		}
+
+		private long throughput() {
+			return Math.round(bytes * 1_000_000_000d / Math.max(1, System.nanoTime() - started));
+		}
+
+		private boolean succeeded() {
+			return result.isDone() && !result.isCompletedExceptionally();
+		}
+
+		/**
+		 * Also disconnects, in case the source is stalled in a read
+		 */
+		private void cancel() {
+			cancelled = true;
+			HttpURLConnection httpConnection = connection;
+			if (httpConnection != null && !result.isDone()) {
+				httpConnection.disconnect();
+			}
+		}
+
+		private void run(Consumer<InstallProgress> progress) {
+			long transferred;
+			try {
+				transferred = transfer(installProgress -> {
+					if (leader == this) {
+						progress.accept(installProgress);
+					}
+				});
+			}
+			catch (Exception e) {
+				if (cancelled || Download.this.cancelled) {
+					result.completeExceptionally(new CancelException());
+				}
+				else {
+					// Completed first, so the download is never left waiting on the recording
+					result.completeExceptionally(e);
+					mirrors.record(source, 0);
+				}
+				return;
+			}
+			result.complete(transferred);
+			mirrors.record(source, throughput());
+		}
+
+		private long transfer(Consumer<InstallProgress> progress) throws IOException {
+			String url = source + path;
+			HttpURLConnection connection = (HttpURLConnection) URI.create(url).toURL().openConnection();
+			this.connection = connection;
+			try {
+				connection.connect();
+				if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+					throw new IllegalStateException("Unable to download " + url + ": " +
+									connection.getResponseCode() + " " + connection.getResponseMessage());
+				}
+				ProgressMeter meter = new ProgressMeter("Downloading", connection.getContentLengthLong(), 0, progress);
+				try (InputStream input = connection.getInputStream();
+						 OutputStream output = Files.newOutputStream(file)) {
+					byte[] buffer = new byte[BUFFER_SIZE];
+					int read;
+					while ((read = input.read(buffer)) != -1) {
+						if (Download.this.cancelled || cancelled) {
+							throw new CancelException();
+						}
+						output.write(buffer, 0, read);
+						meter.add(read, 0);
+						bytes = meter.bytes();
+						throttle.acquire(read, () -> Download.this.cancelled || cancelled);
+						TaskScheduler.checkpoint();
+					}
+				}
+				meter.done();
+
+				return meter.bytes();
+			}
+			finally {
+				connection.disconnect();
+			}
+		}
+	}
+
+	private record StateProgress(Consumer<InstallProgress> progress) implements ProgressInformation {
+
+		@Override
+		public void publishProgress(int value) {}
+
+		@Override
+		public void publishState(String state) {
+			progress.accept(InstallProgress.indeterminate(state));
+		}
+	}
+}
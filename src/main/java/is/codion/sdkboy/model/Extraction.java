@@ -0,0 +1,177 @@
+/*
+ * This file is part of SDKBOY.
+ *
+ * SDKBOY is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SDKBOY is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SDKBOY.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (c) 2026, Björn Darri Sigurðsson.
+ */
+package is.codion.sdkboy.model;
+
+import io.github.jagodevreede.sdkman.api.SdkManUiPreferences;
+import io.github.jagodevreede.sdkman.api.files.FileUtil;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Extracts a version archive, replacing {@link io.github.jagodevreede.sdkman.api.files.ZipExtractTask},
+ * which runs unzip quietly, with one following the unzip output, reporting the entries and bytes
+ * extracted against the totals from the archive central directory.
+ */
+final class Extraction {
+
+	private static final Pattern ENTRY = Pattern.compile("^\\s*(?:inflating|extracting|creating|linking):\\s+(.+?)(?:\\s+->.*)?\\s*$");
+	private static final int UNZIP_WARNING = 1;
+
+	private final String candidate;
+	private final String identifier;
+	private final Path archive;
+	private final Path destination;
+	private final Path tempDirectory;
+
+	/**
+	 * @param candidate the candidate id
+	 * @param identifier the version identifier
+	 * @param archive the archive to extract
+	 * @param destination the version directory
+	 * @param tempDirectory the directory in which to extract before moving into place
+	 */
+	Extraction(String candidate, String identifier, Path archive, Path destination, Path tempDirectory) {
+		this.candidate = candidate;
+		this.identifier = identifier;
+		this.archive = archive;
+		this.destination = destination;
+		this.tempDirectory = tempDirectory;
+	}
+
+	/**
+	 * @param progress receives the progress
+	 * @return the result
+	 */
+	Result extract(Consumer<InstallProgress> progress) {
+		SdkManUiPreferences preferences = SdkManUiPreferences.getInstance();
+		try {
+			Map<String, Long> sizes = new HashMap<>();
+			long totalBytes = 0;
+			try (ZipFile zipFile = new ZipFile(archive.toFile())) {
+				for (ZipEntry entry : zipFile.stream().toList()) {
+					long size = Math.max(0, entry.getSize());
+					sizes.put(entry.getName(), size);
+					totalBytes += size;
+				}
+			}
+			Files.createDirectories(tempDirectory);
+			// Unique per extraction, so concurrent installs do not share a directory
+			Path out = Files.createTempDirectory(tempDirectory, "extract-");
+			try {
+				FileUtil.deleteRecursively(destination.toFile());
+				ProgressMeter meter = new ProgressMeter("Extracting", totalBytes, sizes.size(), progress);
+				unzip(preferences.unzipExecutable, out, sizes, meter);
+				meter.done();
+				finalizeDirectory(out);
+
+				return new Result(meter.entries(), meter.bytes(), meter.elapsed());
+			}
+			finally {
+				FileUtil.deleteRecursively(out.toFile());
+			}
+		}
+		catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		}
+		finally {
+			if (!preferences.keepDownloadsAvailable) {
+				archive.toFile().delete();
+			}
+		}
+	}
+
+	private void unzip(String unzipExecutable, Path out, Map<String, Long> sizes, ProgressMeter meter)
+					throws IOException, InterruptedException {
+		ProcessBuilder builder = new ProcessBuilder(unzipExecutable == null ? "unzip" : unzipExecutable,
+						"-o", archive.toAbsolutePath().toString(), "-d", out.toAbsolutePath().toString())
+						.redirectErrorStream(true);
+		builder.environment().put("LANG", "en_US.UTF-8");
+		builder.environment().put("LC_ALL", "en_US.UTF-8");
+		Process process = builder.start();
+		String prefix = out.toAbsolutePath() + File.separator;
+		StringBuilder output = new StringBuilder();
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				Matcher matcher = ENTRY.matcher(line);
+				if (matcher.matches()) {
+					String name = matcher.group(1);
+					if (name.startsWith(prefix)) {
+						name = name.substring(prefix.length());
+					}
+					meter.add(sizes.getOrDefault(name, 0L), 1);
+				}
+				else {
+					output.append(line).append(System.lineSeparator());
+				}
+			}
+		}
+		int exitCode = process.waitFor();
+		if (exitCode > UNZIP_WARNING) {
+			throw new IllegalStateException("Unable to extract " + archive + " (" + exitCode + "): " + output);
+		}
+	}
+
+	private void finalizeDirectory(Path out) throws IOException {
+		FlightEvents.DirectoryFinalization event = new FlightEvents.DirectoryFinalization();
+		event.candidate = candidate;
+		event.identifier = identifier;
+		event.begin();
+		File[] files = out.toFile().listFiles();
+		if (files == null || files.length == 0) {
+			throw new IllegalStateException("Archive is empty: " + archive);
+		}
+		File root = files[0];
+		Files.createDirectories(destination.getParent());
+		FileUtil.makeAccessible(root);
+		try {
+			Files.move(root.toPath(), destination);
+		}
+		catch (AccessDeniedException e) {
+			FileUtil.copyDirectory(root.getAbsolutePath(), destination.toAbsolutePath().toString());
+		}
+		event.commit();
+	}
+
+	/**
+	 * @param entries the number of entries extracted
+	 * @param bytes the number of bytes extracted
+	 * @param nanos the time the extraction took
+	 */
+	record Result(long entries, long bytes, long nanos) {}
+}
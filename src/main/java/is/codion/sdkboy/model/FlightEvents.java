@@ -0,0 +1,153 @@
+/*
+ * This file is part of SDKBOY.
+ *
+ * SDKBOY is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SDKBOY is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SDKBOY.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (c) 2026, Björn Darri Sigurðsson.
+ */
+package is.codion.sdkboy.model;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The JDK Flight Recorder events emitted by the install and refresh pipeline.
+ */
+final class FlightEvents {
+
+	private static final String SDKBOY = "SDKBOY";
+
+	private FlightEvents() {}
+
+	@Name("sdkboy.CatalogueFetch")
+	@Label("Catalogue Fetch")
+	@Category({SDKBOY, "Catalogue"})
+	@Description("Fetches the candidate catalogue")
+	static final class CatalogueFetch extends Event {
+
+		@Label("Candidates")
+		int candidates;
+
+		@Label("Cache Hit")
+		boolean cacheHit;
+	}
+
+	@Name("sdkboy.VersionListParse")
+	@Label("Version List Parse")
+	@Category({SDKBOY, "Catalogue"})
+	@Description("Fetches and parses the version list of a candidate")
+	static final class VersionListParse extends Event {
+
+		@Label("Candidate")
+		String candidate;
+
+		@Label("Versions")
+		int versions;
+
+		@Label("Cache Hit")
+		boolean cacheHit;
+	}
+
+	@Name("sdkboy.Download")
+	@Label("Download")
+	@Category({SDKBOY, "Install"})
+	@Description("Downloads a version archive")
+	static final class Download extends Event {
+
+		@Label("Candidate")
+		String candidate;
+
+		@Label("Identifier")
+		String identifier;
+
+		@Label("URL")
+		String url;
+
+		@Label("Bytes")
+		@DataAmount
+		long bytes;
+
+		@Label("Cancelled")
+		boolean cancelled;
+	}
+
+	@Name("sdkboy.Extraction")
+	@Label("Extraction")
+	@Category({SDKBOY, "Install"})
+	@Description("Extracts a version archive")
+	static final class Extraction extends Event {
+
+		@Label("Candidate")
+		String candidate;
+
+		@Label("Identifier")
+		String identifier;
+
+		@Label("Entries")
+		long entries;
+
+		@Label("Bytes")
+		@DataAmount
+		long bytes;
+	}
+
+	@Name("sdkboy.DirectoryFinalization")
+	@Label("Directory Finalization")
+	@Category({SDKBOY, "Install"})
+	@Description("Moves an extracted version into place")
+	static final class DirectoryFinalization extends Event {
+
+		@Label("Candidate")
+		String candidate;
+
+		@Label("Identifier")
+		String identifier;
+	}
+
+	@Name("sdkboy.ChangeGlobal")
+	@Label("Change Global")
+	@Category({SDKBOY, "Use"})
+	@Description("Changes the globally used version of a candidate")
+	static final class ChangeGlobal extends Event {
+
+		@Label("Candidate")
+		String candidate;
+
+		@Label("Identifier")
+		String identifier;
+	}
+
+	@Name("sdkboy.TableUpdate")
+	@Label("Table Update")
+	@Category({SDKBOY, "Table"})
+	@Description("Refreshes or filters a table model, including the sorting")
+	static final class TableUpdate extends Event {
+
+		static final String REFRESH = "refresh";
+		static final String FILTER = "filter";
+
+		@Label("Table")
+		String table;
+
+		@Label("Operation")
+		String operation;
+
+		@Label("Rows")
+		int rows;
+	}
+}
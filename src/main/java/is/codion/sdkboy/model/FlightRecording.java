@@ -0,0 +1,83 @@
+/*
+ * This file is part of SDKBOY.
+ *
+ * SDKBOY is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SDKBOY is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SDKBOY.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (c) 2026, Björn Darri Sigurðsson.
+ */
+package is.codion.sdkboy.model;
+
+import is.codion.common.reactive.state.ObservableState;
+import is.codion.common.reactive.state.State;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Controls a flight recording, using the 'profile' settings,
+ * which includes the SDKBOY events, see {@link FlightEvents}.
+ */
+public final class FlightRecording {
+
+	private final State active = State.state();
+
+	private Recording recording;
+
+	FlightRecording() {}
+
+	public ObservableState active() {
+		return active.observable();
+	}
+
+	public void start() {
+		if (recording != null) {
+			throw new IllegalStateException("Recording already started");
+		}
+		try {
+			recording = new Recording(Configuration.getConfiguration("profile"));
+			recording.setName("SDKBOY");
+			recording.setToDisk(true);
+			recording.start();
+			active.set(true);
+		}
+		catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Stops the recording and dumps it to the given file
+	 * @param file the file to dump the recording to
+	 */
+	public void stop(Path file) {
+		if (recording == null) {
+			throw new IllegalStateException("Recording not started");
+		}
+		try {
+			recording.stop();
+			recording.dump(file);
+		}
+		catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+		finally {
+			recording.close();
+			recording = null;
+			active.set(false);
+		}
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ * This file is part of SDKBOY.
+ *
+ * SDKBOY is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SDKBOY is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SDKBOY.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (c) 2026, Björn Darri Sigurðsson.
+ */
+package is.codion.sdkboy.model;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * The progress of a download or extraction.
+ * @param state the state, such as "Downloading" or "Extracting"
+ * @param bytes the bytes transferred or extracted so far
+ * @param totalBytes the total bytes, -1 if unknown
+ * @param entries the archive entries extracted so far, 0 while downloading
+ * @param totalEntries the total archive entries, 0 while downloading
+ * @param throughput the current throughput in bytes per second, smoothed
+ * @param averageThroughput the average throughput in bytes per second
+ */
+public record InstallProgress(String state, long bytes, long totalBytes, long entries, long totalEntries,
+															double throughput, double averageThroughput) {
+
+	/**
+	 * @param state the state
+	 * @return a progress instance with an unknown total
+	 */
+	public static InstallProgress indeterminate(String state) {
+		return new InstallProgress(state, 0, -1, 0, 0, 0, 0);
+	}
+
+	/**
+	 * @return true if the total is known
+	 */
+	public boolean determinate() {
+		return totalBytes > 0;
+	}
+
+	/**
+	 * @return the progress percentage, 0 if the total is unknown
+	 */
+	public int percent() {
+		return determinate() ? (int) Math.min(100, bytes * 100 / totalBytes) : 0;
+	}
+
+	/**
+	 * @return the estimated time remaining, based on the current throughput, an empty Optional if unknown
+	 */
+	public Optional<Duration> eta() {
+		if (!determinate() || throughput <= 0) {
+			return Optional.empty();
+		}
+
+		return Optional.of(Duration.ofSeconds((long) Math.ceil(Math.max(0, totalBytes - bytes) / throughput)));
+	}
+
+	/**
+	 * @return the bytes, entries, throughput and time remaining, an empty string if the total is unknown
+	 */
+	public String details() {
+		if (!determinate()) {
+			return "";
+		}
+		StringBuilder builder = new StringBuilder(String.format(" %.1f/%.1f MB", megabytes(bytes), megabytes(totalBytes)));
+		if (totalEntries > 0) {
+			builder.append(String.format(", %d/%d files", entries, totalEntries));
+		}
+		if (throughput > 0) {
+			builder.append(String.format(", %.1f MB/s", megabytes(throughput)));
+		}
+		eta().ifPresent(eta -> builder.append(String.format(", %d:%02d left", eta.toMinutes(), eta.toSecondsPart())));
+
+		return builder.toString();
+	}
+
+	@Override
+	public String toString() {
+		return state + details();
+	}
+
+	private static double megabytes(double bytes) {
+		return bytes / (1024 * 1024);
+	}
+}
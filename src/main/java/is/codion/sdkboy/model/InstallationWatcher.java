@@ -0,0 +1,168 @@
+/*
+ * This file is part of SDKBOY.
+ *
+ * SDKBOY is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SDKBOY is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SDKBOY.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (c) 2026, Björn Darri Sigurðsson.
+ */
+package is.codion.sdkboy.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Watches the candidate directories, containing the version directories and the {@code current} links,
+ * along with the archive directory, for changes made outside of SDKBOY, such as by the {@code sdk} command.
+ * A burst of events is coalesced into a single notification, once no event has arrived for a short while,
+ * containing the ids of the affected candidates.
+ */
+// tag::installation_watcher[]
+final class InstallationWatcher implements AutoCloseable {
+
+	private static final long QUIET_MILLIS = 200;
+	private static final long MAXIMUM_DELAY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+	private final Path candidates;
+	private final Path archives;
+	private final Consumer<Set<String>> onChanged;
+	private final Map<WatchKey, Path> directories = new ConcurrentHashMap<>();
+	private final WatchService watchService;
+
+	private InstallationWatcher(Path home, Consumer<Set<String>> onChanged) throws IOException {
+		this.candidates = home.resolve("candidates");
+		this.archives = home.resolve("archives");
+		this.onChanged = onChanged;
+		this.watchService = home.getFileSystem().newWatchService();
+	}
+
+	/**
+	 * @param home the SDKMAN home directory
+	 * @param onChanged receives the ids of the changed candidates, on the watcher thread
+	 * @return a new watcher
+	 */
+	static InstallationWatcher start(Path home, Consumer<Set<String>> onChanged) {
+		try {
+			InstallationWatcher watcher = new InstallationWatcher(home, onChanged);
+			Thread.ofPlatform()
+							.name("SDKBOY installation watcher")
+							.daemon(true)
+							.start(watcher::watch);
+
+			return watcher;
+		}
+		catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	@Override
+	public void close() {
+		try {
+			watchService.close();
+		}
+		catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private void watch() {
+		register(candidates);
+		register(archives);
+		candidateDirectories().forEach(this::register);
+		try {
+			while (true) {
+				Set<String> changed = new HashSet<>();
+				collect(watchService.take(), changed);
+				long deadline = System.nanoTime() + MAXIMUM_DELAY_NANOS;
+				WatchKey key;
+				while (System.nanoTime() < deadline && (key = watchService.poll(QUIET_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+					collect(key, changed);
+				}
+				if (!changed.isEmpty()) {
+					onChanged.accept(Set.copyOf(changed));
+				}
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		catch (ClosedWatchServiceException e) {
+			// Closed
+		}
+	}
+
+	private void collect(WatchKey key, Set<String> changed) {
+		Path directory = directories.get(key);
+		for (WatchEvent<?> event : key.pollEvents()) {
+			if (event.kind() == OVERFLOW || directory == null) {
+				candidateDirectories()
+								.map(candidateDirectory -> candidateDirectory.getFileName().toString())
+								.forEach(changed::add);
+			}
+			else {
+				String name = event.context().toString();
+				if (directory.equals(candidates)) {
+					changed.add(name);
+					register(candidates.resolve(name));
+				}
+				else if (directory.equals(archives)) {
+					// <candidate>-<identifier>.zip
+					int separator = name.indexOf('-');
+					if (separator > 0) {
+						changed.add(name.substring(0, separator));
+					}
+				}
+				else {
+					changed.add(directory.getFileName().toString());
+				}
+			}
+		}
+		if (!key.reset()) {
+			directories.remove(key);
+		}
+	}
+
+	private void register(Path directory) {
+		if (Files.isDirectory(directory)) {
+			try {
+				directories.put(directory.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY), directory);
+			}
+			catch (IOException | ClosedWatchServiceException e) {
+				// Not watched, changes picked up on refresh
+			}
+		}
+	}
+
+	private Stream<Path> candidateDirectories() {
+		File[] candidateDirectories = candidates.toFile().listFiles(File::isDirectory);
+
+		return candidateDirectories == null ? Stream.empty() : Stream.of(candidateDirectories).map(File::toPath);
+	}
+}
+// end::installation_watcher[]
@@ -0,0 +1,58 @@
+/*
+ * This file is part of SDKBOY.
+ *
+ * SDKBOY is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SDKBOY is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SDKBOY.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (c) 2026, Björn Darri Sigurðsson.
+ */
+package is.codion.sdkboy.model;
+
+/**
+ * Just enough JSON for exporting diagnostics, no need for a library.
+ */
+public final class Json {
+
+	private Json() {}
+
+	/**
+	 * @param value the value
+	 * @return the value as a quoted and escaped JSON string, null if the value is null
+	 */
+	public static String string(String value) {
+		if (value == null) {
+			return "null";
+		}
+		StringBuilder builder = new StringBuilder(value.length() + 2).append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char character = value.charAt(i);
+			switch (character) {
+				case '"' -> builder.append("\\\"");
+				case '\\' -> builder.append("\\\\");
+				case '\n' -> builder.append("\\n");
+				case '\r' -> builder.append("\\r");
+				case '\t' -> builder.append("\\t");
+				default -> {
+					if (character < 0x20) {
+						builder.append(String.format("\\u%04x", (int) character));
+					}
+					else {
+						builder.append(character);
+					}
+				}
+			}
+		}
+
+		return builder.append('"').toString();
+	}
+}
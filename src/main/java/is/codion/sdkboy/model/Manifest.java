@@ -0,0 +1,187 @@
+/*
+ * This file is part of SDKBOY.
+ *
+ * SDKBOY is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SDKBOY is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SDKBOY.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (c) 2026, Björn Darri Sigurðsson.
+ */
+package is.codion.sdkboy.model;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.joining;
+
+/**
+ * A declarative description of the versions that should be installed, and used, per candidate.
+ * <pre>
+ * # candidate=identifier[,identifier...], the identifier marked with * is used
+ * java=21.0.5-tem*,17.0.13-tem
+ * gradle=8.11.1*
+ * # no versions, all installed ones are uninstalled, except the used one
+ * maven=
+ * </pre>
+ * Only the candidates listed in the manifest are reconciled, others are left alone.
+ * @see SDKBoyService#plan(Manifest)
+ * @see SDKBoyService#reconcile(Plan, java.util.function.BiConsumer, is.codion.common.reactive.observer.Observer)
+ */
+// tag::manifest[]
+public final class Manifest {
+
+	private static final String USED = "*";
+
+	private final List<Entry> entries;
+
+	private Manifest(List<Entry> entries) {
+		this.entries = entries;
+	}
+
+	/**
+	 * @return the manifest entries, sorted by candidate
+	 */
+	public List<Entry> entries() {
+		return entries;
+	}
+
+	/**
+	 * @param file the manifest file
+	 * @return the manifest
+	 * @throws IllegalArgumentException in case the manifest is invalid
+	 */
+	public static Manifest parse(Path file) {
+		Properties properties = new Properties();
+		try (Reader reader = Files.newBufferedReader(file)) {
+			properties.load(reader);
+		}
+		catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+
+		return new Manifest(properties.stringPropertyNames().stream()
+						.sorted()
+						.map(candidate -> entry(candidate, properties.getProperty(candidate)))
+						.toList());
+	}
+
+	private static Entry entry(String candidate, String value) {
+		List<String> identifiers = new ArrayList<>();
+		String use = null;
+		for (String identifier : Arrays.stream(value.split(","))
+						.map(String::trim)
+						.filter(id -> !id.isEmpty())
+						.toList()) {
+			if (identifier.endsWith(USED)) {
+				if (use != null) {
+					throw new IllegalArgumentException("More than one version of '" + candidate + "' marked as used");
+				}
+				identifier = identifier.substring(0, identifier.length() - USED.length()).trim();
+				use = identifier;
+			}
+			if (identifier.isEmpty()) {
+				throw new IllegalArgumentException("Empty identifier for '" + candidate + "'");
+			}
+			if (!identifiers.contains(identifier)) {
+				identifiers.add(identifier);
+			}
+		}
+
+		return new Entry(candidate, List.copyOf(identifiers), use);
+	}
+
+	/**
+	 * @param candidate the candidate id
+	 * @param identifiers the identifiers of the versions that should be installed
+	 * @param use the identifier of the version to use, null for leaving the used version alone,
+	 * which is then not uninstalled, even if not listed
+	 */
+	public record Entry(String candidate, List<String> identifiers, String use) {}
+
+	/**
+	 * @param type the action type
+	 * @param candidate the candidate id
+	 * @param identifier the version identifier
+	 */
+	public record Action(Type type, String candidate, String identifier) {
+
+		public enum Type {
+			INSTALL, USE, UNINSTALL
+		}
+
+		public Action {
+			requireNonNull(type);
+			requireNonNull(candidate);
+			requireNonNull(identifier);
+		}
+
+		public String toJson() {
+			return "{\"action\": " + Json.string(type.name().toLowerCase()) +
+							", \"candidate\": " + Json.string(candidate) +
+							", \"identifier\": " + Json.string(identifier) + "}";
+		}
+
+		@Override
+		public String toString() {
+			return type.name().toLowerCase() + " " + candidate + " " + identifier;
+		}
+	}
+
+	/**
+	 * The actions required to bring the local installation in line with a manifest,
+	 * performed in order, installs first, then uses and finally uninstalls.
+	 * @param installs the versions to install
+	 * @param uses the versions to use
+	 * @param uninstalls the versions to uninstall
+	 */
+	public record Plan(List<Action> installs, List<Action> uses, List<Action> uninstalls) {
+
+		/**
+		 * @return true if the local installation already matches the manifest
+		 */
+		public boolean isEmpty() {
+			return installs.isEmpty() && uses.isEmpty() && uninstalls.isEmpty();
+		}
+
+		/**
+		 * @return all the actions, in the order they are performed
+		 */
+		public List<Action> actions() {
+			List<Action> actions = new ArrayList<>(installs);
+			actions.addAll(uses);
+			actions.addAll(uninstalls);
+
+			return actions;
+		}
+
+		public String toJson() {
+			return isEmpty() ? "[]" : actions().stream()
+							.map(Action::toJson)
+							.collect(joining(",\n  ", "[\n  ", "\n]"));
+		}
+
+		@Override
+		public String toString() {
+			return isEmpty() ? "Nothing to do" : actions().stream()
+							.map(Action::toString)
+							.collect(joining("\n"));
+		}
+	}
+}
+// end::manifest[]
@@ -0,0 +1,313 @@
+/*
+ * This file is part of SDKBOY.
+ *
+ * SDKBOY is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SDKBOY is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SDKBOY.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (c) 2026, Björn Darri Sigurðsson.
+ */
+package is.codion.sdkboy.model;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import static java.util.stream.Collectors.joining;
+
+/**
+ * A lightweight registry of lock-free counters and latency histograms,
+ * along with the most recent failures which are not fatal, such as of background tasks.
+ */
+// tag::metrics[]
+public final class Metrics {
+
+	public static final String CANDIDATE_REFRESH = "candidate.refresh";
+	public static final String VERSION_REFRESH = "version.refresh";
+	public static final String HTTP_CACHE_HIT = "http.cache.hit";
+	public static final String HTTP_CACHE_MISS = "http.cache.miss";
+	public static final String DOWNLOAD_THROUGHPUT = "download.throughput";
+	public static final String EXTRACTION_THROUGHPUT = "extraction.throughput";
+	public static final String USE = "use";
+	public static final String EDT_DISPATCH = "edt.dispatch";
+	public static final String EDT_STALL = "edt.stall";
+	public static final String QUERY = "query";
+	public static final String LOCK_WAIT = "lock.wait";
+	public static final String DOWNLOAD_DEFERRED = "download.deferred";
+	public static final String DOWNLOAD_THROTTLED = "download.throttled.ms";
+	public static final String DOWNLOAD_HEDGED = "download.hedged";
+	public static final String MIRROR_THROUGHPUT = "download.mirror.throughput";
+	public static final String SHARED_CACHE_HIT = "download.shared.hit";
+	public static final String SHARED_CACHE_MISS = "download.shared.miss";
+	public static final String ARCHIVE_EVICTED = "archive.evicted";
+	public static final String ARCHIVE_EVICTED_BYTES = "archive.evicted.bytes";
+	public static final String DISK_USAGE = "disk.usage";
+	public static final String CATALOGUE_REVALIDATION = "catalogue.revalidation";
+	public static final String CATALOGUE_CHANGED = "catalogue.changed";
+	public static final String SEARCH = "search";
+	public static final String SEARCH_INDEX = "search.index";
+	public static final String FAILURE = "failure";
+	public static final String RELEASE_PROBE = "release.probe";
+
+	public static final String MICROSECONDS = "µs";
+	public static final String BYTES_PER_SECOND = "bytes/s";
+	public static final String FILES_PER_SECOND = "files/s";
+
+	private static final int RECENT_FAILURES = 20;
+
+	private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+	private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+	private final Deque<FailureSnapshot> failures = new ConcurrentLinkedDeque<>();
+
+	/**
+	 * @param name the counter name
+	 * @return the counter, created on first access
+	 */
+	public Counter counter(String name) {
+		return counters.computeIfAbsent(name, _ -> new Counter());
+	}
+
+	/**
+	 * @param name the histogram name
+	 * @param unit the unit of the recorded values
+	 * @return the histogram, created on first access
+	 */
+	public Histogram histogram(String name, String unit) {
+		return histograms.computeIfAbsent(name, _ -> new Histogram(unit));
+	}
+
+	/**
+	 * Runs the given task, recording its duration in microseconds
+	 * @param name the histogram name
+	 * @param task the task to time
+	 * @param <T> the result type
+	 * @return the task result
+	 */
+	public <T> T time(String name, Supplier<T> task) {
+		long start = System.nanoTime();
+		try {
+			return task.get();
+		}
+		finally {
+			histogram(name, MICROSECONDS).record((System.nanoTime() - start) / 1_000);
+		}
+	}
+
+	/**
+	 * Records a rate, such as bytes or files per second
+	 * @param name the histogram name
+	 * @param unit the rate unit
+	 * @param amount the amount processed
+	 * @param nanos the time it took in nanoseconds
+	 */
+	public void rate(String name, String unit, long amount, long nanos) {
+		if (nanos > 0) {
+			histogram(name, unit).record(amount * 1_000_000_000L / nanos);
+		}
+	}
+
+	/**
+	 * Reports a failure which is not fatal, such as of a background task or of persisting a cache,
+	 * counting it and keeping the most recent ones, for diagnostics.
+	 * @param context what failed
+	 * @param exception the exception
+	 */
+	public void failure(String context, Throwable exception) {
+		counter(FAILURE).increment();
+		StringWriter stackTrace = new StringWriter();
+		exception.printStackTrace(new PrintWriter(stackTrace));
+		failures.addFirst(new FailureSnapshot(Instant.now(), context, stackTrace.toString()));
+		while (failures.size() > RECENT_FAILURES) {
+			failures.pollLast();
+		}
+	}
+
+	/**
+	 * @return a snapshot of all metrics
+	 */
+	public Snapshot snapshot() {
+		return new Snapshot(counters.entrySet().stream()
+						.map(entry -> new CounterSnapshot(entry.getKey(), entry.getValue().value()))
+						.sorted(Comparator.comparing(CounterSnapshot::name))
+						.toList(),
+						histograms.entrySet().stream()
+										.map(entry -> entry.getValue().snapshot(entry.getKey()))
+										.sorted(Comparator.comparing(HistogramSnapshot::name))
+										.toList(),
+						List.copyOf(failures));
+	}
+
+	public static final class Counter {
+
+		private final LongAdder adder = new LongAdder();
+
+		private Counter() {}
+
+		public void increment() {
+			adder.increment();
+		}
+
+		public void add(long value) {
+			adder.add(value);
+		}
+
+		public long value() {
+			return adder.sum();
+		}
+	}
+
+	/**
+	 * A log-linear histogram in the spirit of HdrHistogram, values are bucketed by
+	 * their power of two, with each power of two split into 16 linear sub-buckets,
+	 * giving percentiles within ~6% of the recorded values, using constant memory.
+	 */
+	public static final class Histogram {
+
+		private static final int SUB_BUCKET_BITS = 4;
+		private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+		private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+		private final String unit;
+		private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+		private final LongAdder count = new LongAdder();
+		private final LongAdder sum = new LongAdder();
+		private final LongAccumulator max = new LongAccumulator(Long::max, 0);
+
+		private Histogram(String unit) {
+			this.unit = unit;
+		}
+
+		public void record(long value) {
+			long positive = Math.max(0, value);
+			buckets.incrementAndGet(index(positive));
+			count.increment();
+			sum.add(positive);
+			max.accumulate(positive);
+		}
+
+		/**
+		 * @param percentile the percentile, 0 - 100
+		 * @return the value at the given percentile, 0 if empty
+		 */
+		public long percentile(double percentile) {
+			long total = count.sum();
+			if (total == 0) {
+				return 0;
+			}
+			long threshold = (long) Math.ceil(total * percentile / 100d);
+			long accumulated = 0;
+			for (int i = 0; i < BUCKETS; i++) {
+				accumulated += buckets.get(i);
+				if (accumulated >= Math.max(1, threshold)) {
+					return Math.min(upperBound(i), max.get());
+				}
+			}
+
+			return max.get();
+		}
+
+		private HistogramSnapshot snapshot(String name) {
+			long total = count.sum();
+
+			return new HistogramSnapshot(name, unit, total, total == 0 ? 0 : sum.sum() / (double) total,
+							percentile(50), percentile(90), percentile(99), max.get());
+		}
+
+		static int index(long value) {
+			if (value < SUB_BUCKETS) {
+				return (int) value;
+			}
+			int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+			int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+
+			return (shift + 1) * SUB_BUCKETS + subBucket;
+		}
+
+		static long upperBound(int index) {
+			if (index < SUB_BUCKETS) {
+				return index;
+			}
+			int shift = index / SUB_BUCKETS - 1;
+			long lowerBound = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+
+			return lowerBound + (1L << shift) - 1;
+		}
+	}
+
+	public record CounterSnapshot(String name, long value) {}
+
+	public record HistogramSnapshot(String name, String unit, long count, double mean,
+																	long p50, long p90, long p99, long max) {}
+
+	/**
+	 * @param time the time of the failure
+	 * @param context what failed
+	 * @param stackTrace the stack trace of the exception
+	 */
+	public record FailureSnapshot(Instant time, String context, String stackTrace) {}
+
+	/**
+	 * @param counters the counters
+	 * @param histograms the histograms
+	 * @param failures the most recent failures, the latest first
+	 */
+	public record Snapshot(List<CounterSnapshot> counters, List<HistogramSnapshot> histograms,
+												 List<FailureSnapshot> failures) {
+
+		public String toJson() {
+			return "{\n  \"counters\": {" + counters.stream()
+							.map(counter -> "\n    " + Json.string(counter.name()) + ": " + counter.value())
+							.collect(joining(",")) + "\n  },\n  \"histograms\": {" + histograms.stream()
+							.map(histogram -> "\n    " + Json.string(histogram.name()) + ": {" +
+											"\"unit\": " + Json.string(histogram.unit()) +
+											", \"count\": " + histogram.count() +
+											", \"mean\": " + Math.round(histogram.mean()) +
+											", \"p50\": " + histogram.p50() +
+											", \"p90\": " + histogram.p90() +
+											", \"p99\": " + histogram.p99() +
+											", \"max\": " + histogram.max() + "}")
+							.collect(joining(",")) + "\n  },\n  \"failures\": [" + failures.stream()
+							.map(failure -> "\n    {\"time\": " + Json.string(failure.time().toString()) +
+											", \"context\": " + Json.string(failure.context()) +
+											", \"stack\": " + Json.string(failure.stackTrace()) + "}")
+							.collect(joining(",")) + "\n  ]\n}\n";
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder builder = new StringBuilder();
+			counters.forEach(counter -> builder.append(String.format("%-24s %12d%n", counter.name(), counter.value())));
+			if (!histograms.isEmpty()) {
+				builder.append(String.format("%n%-24s %8s %10s %10s %10s %10s %10s  %s%n",
+								"", "count", "mean", "p50", "p90", "p99", "max", "unit"));
+			}
+			histograms.forEach(histogram -> builder.append(String.format("%-24s %8d %10d %10d %10d %10d %10d  %s%n",
+							histogram.name(), histogram.count(), Math.round(histogram.mean()),
+							histogram.p50(), histogram.p90(), histogram.p99(), histogram.max(), histogram.unit())));
+			failures.forEach(failure -> builder.append(String.format("%n%s %s%n  %s%n", failure.time(), failure.context(),
+							failure.stackTrace().strip().replace("\n", "\n  "))));
+
+			return builder.toString();
+		}
+	}
+}
+// end::metrics[]
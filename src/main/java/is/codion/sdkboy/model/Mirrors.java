@@ -0,0 +1,152 @@
+/*
+ * This file is part of SDKBOY.
+ *
+ * SDKBOY is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SDKBOY is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SDKBOY.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (c) 2026, Björn Darri Sigurðsson.
+ */
+package is.codion.sdkboy.model;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The download sources, the primary SDKMAN broker along with any mirrors, such as an
+ * Artifactory remote repository proxying it, which serve the archives using the same
+ * {@code /broker/download/<candidate>/<identifier>/<platform>} paths.
+ * <p>
+ * The throughput of each source is recorded, smoothed over the downloads, and persisted to
+ * {@code SDKMAN_HOME/var/sdkboy-mirrors.properties}, so the fastest one is tried first next time.
+ * Sources without a recorded throughput are tried in the configured order, the primary one first.
+ */
+// tag::mirrors[]
+public final class Mirrors {
+
+	static final String FILE_NAME = "sdkboy-mirrors.properties";
+
+	private static final double SMOOTHING = 0.5;
+
+	private final String primary;
+	private final PropertiesFile file;
+	private final Metrics metrics;
+	private final Map<String, Long> throughput = new ConcurrentHashMap<>();
+
+	private volatile List<String> mirrors = List.of();
+	private volatile long hedgeThreshold;
+
+	Mirrors(String primary, Path file, Metrics metrics) {
+		this.primary = primary;
+		this.file = new PropertiesFile(file, "Download source throughput in bytes/s, recorded by SDKBOY");
+		this.metrics = metrics;
+		load();
+	}
+
+	/**
+	 * @param baseUrls the base urls of the mirrors, replacing the primary base url in the download urls
+	 */
+	public void set(List<String> baseUrls) {
+		mirrors = baseUrls.stream()
+						.map(String::trim)
+						.filter(baseUrl -> !baseUrl.isEmpty())
+						.map(Mirrors::stripTrailingSlash)
+						.filter(baseUrl -> !baseUrl.equals(primary))
+						.distinct()
+						.toList();
+	}
+
+	/**
+	 * A hedged request is sent to the next source when a download stays below this throughput,
+	 * see {@link Download}, 0 to never hedge.
+	 * @param bytesPerSecond the throughput below which to hedge
+	 */
+	public void hedgeThreshold(long bytesPerSecond) {
+		hedgeThreshold = Math.max(0, bytesPerSecond);
+	}
+
+	/**
+	 * @return the recorded throughput of each source in bytes/s, the fastest first
+	 */
+	public Map<String, Long> throughput() {
+		Map<String, Long> sorted = new LinkedHashMap<>();
+		throughput.entrySet().stream()
+						.sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+						.forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+
+		return sorted;
+	}
+
+	long hedgeThreshold() {
+		return hedgeThreshold;
+	}
+
+	/**
+	 * @return the base urls of the sources, the fastest recorded first
+	 */
+	List<String> sources() {
+		List<String> sources = new ArrayList<>();
+		sources.add(primary);
+		sources.addAll(mirrors);
+		// Stable, so sources without a recorded throughput stay in the configured order
+		sources.sort(Comparator.comparingLong((String source) -> throughput.getOrDefault(source, -1L)).reversed());
+
+		return sources;
+	}
+
+	/**
+	 * @param source the source base url
+	 * @param bytesPerSecond the throughput observed, 0 in case of a failure
+	 */
+	void record(String source, long bytesPerSecond) {
+		throughput.merge(source, bytesPerSecond, (previous, current) ->
+						Math.round(SMOOTHING * current + (1 - SMOOTHING) * previous));
+		metrics.histogram(Metrics.MIRROR_THROUGHPUT, Metrics.BYTES_PER_SECOND).record(bytesPerSecond);
+		try {
+			save();
+		}
+		catch (UncheckedIOException e) {
+			// Only a hint for ordering the sources, not worth failing a download over
+			metrics.failure("Saving the download source throughput", e);
+		}
+	}
+
+	private void load() {
+		try {
+			Properties properties = file.load();
+			properties.stringPropertyNames().forEach(source ->
+							throughput.put(source, Long.parseLong(properties.getProperty(source))));
+		}
+		catch (UncheckedIOException | NumberFormatException e) {
+			// Only a hint for ordering the sources, start over
+			throughput.clear();
+		}
+	}
+
+	private synchronized void save() {
+		Properties properties = new Properties();
+		throughput.forEach((source, bytesPerSecond) -> properties.setProperty(source, Long.toString(bytesPerSecond)));
+		file.store(properties);
+	}
+
+	private static String stripTrailingSlash(String baseUrl) {
+		return baseUrl.endsWith("/") ? stripTrailingSlash(baseUrl.substring(0, baseUrl.length() - 1)) : baseUrl;
+	}
+}
+// end::mirrors[]
@@ -0,0 +1,112 @@
+/*
+ * This file is part of SDKBOY.
+ *
+ * SDKBOY is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SDKBOY is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SDKBOY.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (c) 2026, Björn Darri Sigurðsson.
+ */
+package is.codion.sdkboy.model;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Measures the throughput of a download or extraction, coalescing the progress
+ * updates to the display refresh rate, so that a fast transfer does not flood
+ * the event dispatch thread with updates.
+ */
+final class ProgressMeter {
+
+	private static final long PUBLISH_INTERVAL = TimeUnit.MILLISECONDS.toNanos(16);
+	private static final double SMOOTHING = 0.2;
+
+	private final String state;
+	private final long totalBytes;
+	private final long totalEntries;
+	private final Consumer<InstallProgress> publisher;
+	private final long started = System.nanoTime();
+
+	private long bytes;
+	private long entries;
+	private long lastPublished = started;
+	private long lastBytes;
+	private double throughput;
+
+	/**
+	 * @param state the state
+	 * @param totalBytes the total bytes, -1 if unknown
+	 * @param totalEntries the total entries, 0 if not applicable
+	 * @param publisher receives the progress updates
+	 */
+	ProgressMeter(String state, long totalBytes, long totalEntries, Consumer<InstallProgress> publisher) {
+		this.state = state;
+		this.totalBytes = totalBytes;
+		this.totalEntries = totalEntries;
+		this.publisher = publisher;
+		publisher.accept(progress(0));
+	}
+
+	/**
+	 * @param bytes the number of bytes transferred since the last call
+	 * @param entries the number of entries extracted since the last call
+	 */
+	void add(long bytes, long entries) {
+		this.bytes += bytes;
+		this.entries += entries;
+		long now = System.nanoTime();
+		long elapsed = now - lastPublished;
+		if (elapsed >= PUBLISH_INTERVAL) {
+			double current = (this.bytes - lastBytes) * 1_000_000_000d / elapsed;
+			throughput = throughput == 0 ? current : SMOOTHING * current + (1 - SMOOTHING) * throughput;
+			lastPublished = now;
+			lastBytes = this.bytes;
+			publisher.accept(progress(now));
+		}
+	}
+
+	/**
+	 * @return the bytes transferred
+	 */
+	long bytes() {
+		return bytes;
+	}
+
+	/**
+	 * @return the entries extracted
+	 */
+	long entries() {
+		return entries;
+	}
+
+	/**
+	 * @return the time since this meter was created, in nanoseconds
+	 */
+	long elapsed() {
+		return System.nanoTime() - started;
+	}
+
+	/**
+	 * Publishes the final progress
+	 */
+	void done() {
+		publisher.accept(progress(System.nanoTime()));
+	}
+
+	private InstallProgress progress(long now) {
+		long elapsed = now - started;
+
+		return new InstallProgress(state, bytes, totalBytes, entries, totalEntries, throughput,
+						elapsed == 0 ? 0 : bytes * 1_000_000_000d / elapsed);
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ * This file is part of SDKBOY.
+ *
+ * SDKBOY is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SDKBOY is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SDKBOY.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (c) 2026, Björn Darri Sigurðsson.
+ */
+package is.codion.sdkboy.model;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * A properties file, such as the caches and indexes kept in {@code SDKMAN_HOME/var}, stored by writing
+ * a temporary file, which is then moved in place atomically, so other instances never read a partial file.
+ */
+final class PropertiesFile {
+
+	private final Path file;
+	private final String comments;
+
+	/**
+	 * @param file the file
+	 * @param comments the comments written at the top of the file
+	 */
+	PropertiesFile(Path file, String comments) {
+		this.file = file;
+		this.comments = comments;
+	}
+
+	/**
+	 * @return the file
+	 */
+	Path path() {
+		return file;
+	}
+
+	/**
+	 * @return the properties, empty if the file does not exist
+	 * @throws UncheckedIOException in case the file could not be read
+	 */
+	Properties load() {
+		Properties properties = new Properties();
+		if (Files.exists(file)) {
+			try (Reader reader = Files.newBufferedReader(file)) {
+				properties.load(reader);
+			}
+			catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		return properties;
+	}
+
+	/**
+	 * @param properties the properties to store, replacing the file
+	 * @throws UncheckedIOException in case the file could not be written
+	 */
+	synchronized void store(Properties properties) {
+		try {
+			Files.createDirectories(file.getParent());
+			Path temporary = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+			try {
+				try (Writer writer = Files.newBufferedWriter(temporary)) {
+					properties.store(writer, comments);
+				}
+				Files.move(temporary, file, ATOMIC_MOVE, REPLACE_EXISTING);
+			}
+			finally {
+				Files.deleteIfExists(temporary);
+			}
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
@@ -0,0 +1,400 @@
+/*
+ * This file is part of SDKBOY.
+ *
+ * SDKBOY is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SDKBOY is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SDKBOY.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (c) 2026, Björn Darri Sigurðsson.
+ */
+package is.codion.sdkboy.model;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.util.stream.Collectors.joining;
+
+/**
+ * Answers queries about the local installation over a Unix domain socket, from an in-memory
+ * cache, so IDE plugins and shell prompts don't have to spawn the {@code sdk} shell function.
+ * One query per line, answered with one line of JSON.
+ * <pre>
+ * current             {"gradle": "8.11.1", "java": "21.0.5-tem"}
+ * current java        "21.0.5-tem", null if none is used
+ * installed java      ["17.0.13-tem", "21.0.5-tem"]
+ * subscribe           {"subscribed": true}, followed by a line for each change, such as
+ *                     {"action": "use", "candidate": "java", "identifier": "17.0.13-tem"}
+ * </pre>
+ * The cache is invalidated per candidate when a version is installed, uninstalled or used via SDKBOY,
+ * and completely on {@link #invalidate()}, for changes made outside of SDKBOY. Only the answers for
+ * installed candidates are cached, so the cache stays bounded no matter what clients query.
+ * <p>
+ * Each subscriber is notified on its own thread, from a bounded queue, so a subscriber not reading can not
+ * block the thread performing a change. A subscriber falling that far behind is disconnected.
+ */
+// tag::query_server[]
+public final class QueryServer implements AutoCloseable {
+
+	static final String SOCKET = "sdkboy.sock";
+
+	private static final Pattern CANDIDATE = Pattern.compile("\\w+");
+	private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+	private static final int MAXIMUM_PENDING_NOTIFICATIONS = 64;
+
+	private final SDKBoyService service;
+	private final Path socket;
+	private final ServerSocketChannel server;
+	private final Map<String, Optional<String>> current = new ConcurrentHashMap<>();
+	private final Map<String, List<String>> installed = new ConcurrentHashMap<>();
+	private final AtomicReference<List<String>> candidates = new AtomicReference<>();
+	// Incremented before each invalidation, so an answer computed across one is not cached
+	private final AtomicLong generation = new AtomicLong();
+	private final Set<Client> subscribers = ConcurrentHashMap.newKeySet();
+	private final Consumer<Manifest.Action> onPerformed = this::onPerformed;
+
+	private QueryServer(SDKBoyService service, Path socket, ServerSocketChannel server) {
+		this.service = service;
+		this.socket = socket;
+		this.server = server;
+		service.performed().addConsumer(onPerformed);
+		Thread.ofVirtual()
+						.name("SDKBOY query server")
+						.start(this::accept);
+	}
+
+	/**
+	 * Starts serving queries on {@code SDKMAN_HOME/var/sdkboy.sock}, accessible by the current user only
+	 * @param service the service
+	 * @return a new query server
+	 * @throws IllegalStateException in case another instance is already serving queries
+	 */
+	public static QueryServer start(SDKBoyService service) {
+		Path socket = service.home().resolve("var").resolve(SOCKET);
+		try {
+			if (Files.exists(socket)) {
+				if (listening(socket)) {
+					throw new IllegalStateException("Queries are already being served on " + socket);
+				}
+				// Left behind by an instance that did not exit cleanly
+				Files.delete(socket);
+			}
+			Files.createDirectories(socket.getParent());
+			ServerSocketChannel server = bind(socket);
+			socket.toFile().deleteOnExit();
+
+			return new QueryServer(service, socket, server);
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * @return the socket path
+	 */
+	public Path socket() {
+		return socket;
+	}
+
+	/**
+	 * Clears the cache, for when the local installation may have changed outside of SDKBOY
+	 */
+	public void invalidate() {
+		generation.incrementAndGet();
+		current.clear();
+		installed.clear();
+		candidates.set(null);
+	}
+
+	@Override
+	public void close() {
+		service.performed().removeConsumer(onPerformed);
+		subscribers.forEach(Client::close);
+		try {
+			server.close();
+			Files.deleteIfExists(socket);
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private void accept() {
+		while (server.isOpen()) {
+			try {
+				SocketChannel channel = server.accept();
+				Thread.ofVirtual()
+								.name("SDKBOY query client")
+								.start(() -> serve(new Client(channel)));
+			}
+			catch (ClosedChannelException e) {
+				return;
+			}
+			catch (IOException e) {
+				service.metrics().failure("Accepting a query client", e);
+			}
+		}
+	}
+
+	private void serve(Client client) {
+		try (client) {
+			String query = client.reader.readLine();
+			while (query != null) {
+				long start = System.nanoTime();
+				String response = respond(query.trim(), client);
+				service.metrics().histogram(Metrics.QUERY, Metrics.MICROSECONDS).record((System.nanoTime() - start) / 1_000);
+				client.write(response);
+				query = client.reader.readLine();
+			}
+		}
+		catch (IOException e) {
+			// Client disconnected
+		}
+		finally {
+			subscribers.remove(client);
+		}
+	}
+
+	private String respond(String query, Client client) {
+		String[] words = WHITESPACE.split(query);
+		return switch (words[0]) {
+			case "current" -> words.length == 1 ? currentJson() : argument(words)
+							.map(candidate -> Json.string(current(candidate).orElse(null)))
+							.orElseGet(() -> error(query));
+			case "installed" -> argument(words)
+							.map(candidate -> installed(candidate).stream()
+											.map(Json::string)
+											.collect(joining(", ", "[", "]")))
+							.orElseGet(() -> error(query));
+			case "subscribe" -> {
+				if (subscribers.add(client)) {
+					client.subscribe();
+				}
+				yield "{\"subscribed\": true}";
+			}
+			default -> error(query);
+		};
+	}
+
+	private String currentJson() {
+		return candidates().stream()
+						.map(candidate -> Json.string(candidate) + ": " + Json.string(current(candidate).orElse(null)))
+						.collect(joining(", ", "{", "}"));
+	}
+
+	private List<String> candidates() {
+		List<String> installedCandidates = candidates.get();
+		if (installedCandidates == null) {
+			long computed = generation.get();
+			installedCandidates = service.installedCandidates();
+			candidates.set(installedCandidates);
+			if (generation.get() != computed) {
+				// Invalidated while computing, possibly before being cached
+				candidates.compareAndSet(installedCandidates, null);
+			}
+		}
+
+		return installedCandidates;
+	}
+
+	private Optional<String> current(String candidate) {
+		if (!candidates().contains(candidate)) {
+			return service.current(candidate);
+		}
+
+		return cached(current, candidate, service::current);
+	}
+
+	private List<String> installed(String candidate) {
+		if (!candidates().contains(candidate)) {
+			return service.installedVersions(candidate);
+		}
+
+		return cached(installed, candidate, service::installedVersions);
+	}
+
+	/**
+	 * Computes the value outside of the cache, only keeping it cached in case nothing was invalidated meanwhile,
+	 * since the invalidation may have removed the value before it was cached.
+	 */
+	private <T> T cached(Map<String, T> cache, String candidate, Function<String, T> query) {
+		T value = cache.get(candidate);
+		if (value == null) {
+			long computed = generation.get();
+			value = query.apply(candidate);
+			cache.putIfAbsent(candidate, value);
+			if (generation.get() != computed) {
+				cache.remove(candidate, value);
+			}
+		}
+
+		return value;
+	}
+
+	private void onPerformed(Manifest.Action action) {
+		generation.incrementAndGet();
+		current.remove(action.candidate());
+		installed.remove(action.candidate());
+		candidates.set(null);
+		String notification = action.toJson();
+		subscribers.forEach(subscriber -> {
+			if (!subscriber.notify(notification)) {
+				// Fallen behind, most likely not reading
+				subscribers.remove(subscriber);
+				subscriber.close();
+			}
+		});
+	}
+
+	private static Optional<String> argument(String[] words) {
+		return words.length == 2 && CANDIDATE.matcher(words[1]).matches() ? Optional.of(words[1]) : Optional.empty();
+	}
+
+	private static String error(String query) {
+		return "{\"error\": " + Json.string("Unknown query: " + query) + "}";
+	}
+
+	/**
+	 * Binds the socket within a directory accessible by the current user only, before moving it into place,
+	 * so other users can not connect before the socket permissions have been restricted.
+	 */
+	private static ServerSocketChannel bind(Path socket) throws IOException {
+		if (!socket.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+			return ServerSocketChannel.open(StandardProtocolFamily.UNIX)
+							.bind(UnixDomainSocketAddress.of(socket));
+		}
+		FileAttribute<?> privateDirectory = PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------"));
+		Path directory = Files.createTempDirectory(socket.getParent(), SOCKET, privateDirectory);
+		try {
+			Path bound = directory.resolve(SOCKET);
+			ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+			try {
+				server.bind(UnixDomainSocketAddress.of(bound));
+				Files.setPosixFilePermissions(bound, PosixFilePermissions.fromString("rw-------"));
+				Files.move(bound, socket, ATOMIC_MOVE);
+			}
+			catch (IOException | RuntimeException e) {
+				server.close();
+				Files.deleteIfExists(bound);
+				throw e;
+			}
+
+			return server;
+		}
+		finally {
+			Files.deleteIfExists(directory);
+		}
+	}
+
+	private static boolean listening(Path socket) {
+		try (SocketChannel _ = SocketChannel.open(UnixDomainSocketAddress.of(socket))) {
+			return true;
+		}
+		catch (IOException e) {
+			return false;
+		}
+	}
+
+	private static final class Client implements AutoCloseable {
+
+		private final SocketChannel channel;
+		private final BufferedReader reader;
+		private final BlockingQueue<String> notifications = new ArrayBlockingQueue<>(MAXIMUM_PENDING_NOTIFICATIONS);
+
+		private volatile Thread notifier;
+
+		private Client(SocketChannel channel) {
+			this.channel = channel;
+			this.reader = new BufferedReader(Channels.newReader(channel, UTF_8));
+		}
+
+		private void subscribe() {
+			notifier = Thread.ofVirtual()
+							.name("SDKBOY query subscriber")
+							.start(this::sendNotifications);
+		}
+
+		/**
+		 * @param notification the notification to send
+		 * @return false if too many notifications are already pending
+		 */
+		private boolean notify(String notification) {
+			return notifications.offer(notification);
+		}
+
+		private void sendNotifications() {
+			try {
+				while (true) {
+					write(notifications.take());
+				}
+			}
+			catch (InterruptedException e) {
+				// Closed
+			}
+			catch (IOException e) {
+				close();
+			}
+		}
+
+		/**
+		 * Writes directly to the channel, since a channel writer would block
+		 * on the channel lock held by the reader while waiting for a query.
+		 */
+		private synchronized void write(String line) throws IOException {
+			ByteBuffer buffer = UTF_8.encode(line + "\n");
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+		}
+
+		@Override
+		public void close() {
+			Thread thread = notifier;
+			if (thread != null) {
+				thread.interrupt();
+			}
+			try {
+				channel.close();
+			}
+			catch (IOException e) {
+				// Closing anyway
+			}
+		}
+	}
+}
+// end::query_server[]
@@ -0,0 +1,174 @@
+/*
+ * This file is part of SDKBOY.
+ *
+ * SDKBOY is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SDKBOY is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SDKBOY.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (c) 2026, Björn Darri Sigurðsson.
+ */
+package is.codion.sdkboy.model;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Probes the metadata of installed versions, from the {@code release} file of a JDK, or the
+ * {@code build.txt} file of Kotlin, reading the files of each directory on its own virtual thread.
+ * The results are cached by directory modification time, see {@link DirectoryCache}, and persisted to
+ * {@code SDKMAN_HOME/var/sdkboy-releases.properties}, so a directory is only probed again once modified.
+ * Directories without a release file are cached as well, with empty metadata.
+ */
+// tag::release_files[]
+public final class ReleaseFiles {
+
+	static final String FILE_NAME = "sdkboy-releases.properties";
+
+	private static final String RELEASE = "release";
+	private static final String BUILD = "build.txt";
+	private static final String SEPARATOR = "\t";
+
+	private final Metrics metrics;
+	private final DirectoryCache<Metadata> cache;
+
+	ReleaseFiles(Path file, Metrics metrics) {
+		this.metrics = metrics;
+		this.cache = new DirectoryCache<>(new PropertiesFile(file, "Directory modification time and release metadata, recorded by SDKBOY"),
+						metrics, ReleaseFiles::decode, ReleaseFiles::encode);
+	}
+
+	/**
+	 * Returns the metadata of the given directories, probing the ones modified since last time in parallel.
+	 * @param directories the directories
+	 * @return the metadata of each directory, excluding the ones that do not exist or contain no release file
+	 */
+	Map<Path, Metadata> metadata(Collection<Path> directories) {
+		Map<Path, Metadata> metadata = new HashMap<>(cache.get(directories, modified ->
+						metrics.time(Metrics.RELEASE_PROBE, () -> probe(modified))));
+		metadata.values().removeIf(Metadata::empty);
+
+		return metadata;
+	}
+
+	/**
+	 * @param version the actual version, such as {@code JAVA_VERSION}, null if unknown
+	 * @param implementor the implementor, such as {@code IMPLEMENTOR}, null if unknown
+	 * @param architecture the architecture, such as {@code OS_ARCH}, null if unknown
+	 * @param modules the modules, separated by space, such as {@code MODULES}, null if unknown
+	 */
+	public record Metadata(String version, String implementor, String architecture, String modules) {
+
+		private static final Metadata EMPTY = new Metadata(null, null, null, null);
+
+		private boolean empty() {
+			return equals(EMPTY);
+		}
+
+		/**
+		 * @param term the lowercase term
+		 * @return true if any of the metadata contains the given term
+		 */
+		public boolean contains(String term) {
+			return contains(version, term) || contains(implementor, term) ||
+							contains(architecture, term) || contains(modules, term);
+		}
+
+		private static boolean contains(String value, String term) {
+			return value != null && value.toLowerCase().contains(term);
+		}
+	}
+
+	private static Map<Path, Metadata> probe(Collection<Path> directories) {
+		Map<Path, Future<Metadata>> probes = new HashMap<>();
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			directories.forEach(directory -> probes.put(directory, executor.submit(() -> probe(directory))));
+		}
+		Map<Path, Metadata> metadata = new HashMap<>();
+		probes.forEach((directory, probe) -> metadata.put(directory, probe.resultNow()));
+
+		return metadata;
+	}
+
+	private static Metadata probe(Path directory) {
+		try {
+			Path release = directory.resolve(RELEASE);
+			if (Files.isRegularFile(release)) {
+				Properties properties = new Properties();
+				try (Reader reader = Files.newBufferedReader(release, UTF_8)) {
+					properties.load(reader);
+				}
+
+				return new Metadata(value(properties, "JAVA_VERSION"), value(properties, "IMPLEMENTOR"),
+								value(properties, "OS_ARCH"), value(properties, "MODULES"));
+			}
+			Path build = directory.resolve(BUILD);
+			if (Files.isRegularFile(build)) {
+				List<String> lines = Files.readAllLines(build, UTF_8);
+
+				return lines.isEmpty() ? Metadata.EMPTY : new Metadata(blankToNull(lines.getFirst()), null, null, null);
+			}
+		}
+		catch (IOException | RuntimeException e) {
+			// Unreadable, cached as empty until modified
+		}
+
+		return Metadata.EMPTY;
+	}
+
+	/**
+	 * @return the value, without the surrounding quotes used by release files, null if none
+	 */
+	private static String value(Properties properties, String key) {
+		String value = properties.getProperty(key);
+		if (value != null && value.length() > 1 && value.startsWith("\"") && value.endsWith("\"")) {
+			value = value.substring(1, value.length() - 1);
+		}
+
+		return blankToNull(value);
+	}
+
+	private static String blankToNull(String value) {
+		return value == null || value.isBlank() ? null : value.trim();
+	}
+
+	private static Metadata decode(String metadata) {
+		String[] values = metadata.split(SEPARATOR, -1);
+
+		return new Metadata(emptyToNull(values[0]), emptyToNull(values[1]), emptyToNull(values[2]), emptyToNull(values[3]));
+	}
+
+	private static String encode(Metadata metadata) {
+		return String.join(SEPARATOR, nullToEmpty(metadata.version()), nullToEmpty(metadata.implementor()),
+						nullToEmpty(metadata.architecture()), nullToEmpty(metadata.modules()));
+	}
+
+	private static String emptyToNull(String value) {
+		return value.isEmpty() ? null : value;
+	}
+
+	private static String nullToEmpty(String value) {
+		return value == null ? "" : value;
+	}
+}
+// end::release_files[]
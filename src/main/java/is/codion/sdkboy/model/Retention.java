@@ -0,0 +1,126 @@
+/*
+ * This file is part of SDKBOY.
+ *
+ * SDKBOY is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SDKBOY is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SDKBOY.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (c) 2026, Björn Darri Sigurðsson.
+ */
+package is.codion.sdkboy.model;
+
+import is.codion.sdkboy.model.SDKBoyModel.VersionModel.VersionInfo;
+
+import io.github.jagodevreede.sdkman.api.domain.CandidateVersion;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toMap;
+
+/**
+ * A retention policy, keeping the latest patch releases of each vendor, major version and variant,
+ * such as the JavaFX builds, ordered by {@link VersionInfo}, also used to find the patch update
+ * of a version. Installed versions no longer available are grouped by their identifier,
+ * {@code <version>-<vendor>} for candidates with vendors.
+ */
+// tag::retention[]
+final class Retention {
+
+	private Retention() {}
+
+	/**
+	 * @param installed the identifiers of the installed versions
+	 * @param versions the available versions
+	 * @param keep the number of patch releases to keep in each group
+	 * @return the identifiers of the superseded versions, sorted
+	 * @throws IllegalArgumentException in case {@code keep} is less than one
+	 */
+	static List<String> superseded(Collection<String> installed, List<CandidateVersion> versions, int keep) {
+		if (keep < 1) {
+			throw new IllegalArgumentException("At least one patch release must be kept");
+		}
+		Map<String, CandidateVersion> available = available(versions);
+		boolean vendors = vendors(versions);
+
+		return installed.stream()
+						.map(identifier -> Release.of(identifier, available.get(identifier), vendors))
+						.collect(groupingBy(Release::group))
+						.values().stream()
+						.flatMap(releases -> releases.stream()
+										.sorted(Comparator.comparing(Release::versionInfo).reversed())
+										.skip(keep))
+						.map(Release::identifier)
+						.sorted()
+						.toList();
+	}
+
+	/**
+	 * @param identifier the version identifier
+	 * @param versions the available versions
+	 * @return the identifier of the latest available patch release of the same vendor, major version
+	 * and variant as the given version, an empty Optional if none is newer
+	 */
+	static Optional<String> patchUpdate(String identifier, List<CandidateVersion> versions) {
+		boolean vendors = vendors(versions);
+		Release release = Release.of(identifier, available(versions).get(identifier), vendors);
+
+		return versions.stream()
+						.map(version -> Release.of(version.identifier(), version, vendors))
+						.filter(available -> available.group().equals(release.group()))
+						.max(Comparator.comparing(Release::versionInfo))
+						.filter(latest -> latest.versionInfo().compareTo(release.versionInfo()) > 0)
+						.map(Release::identifier);
+	}
+
+	private static Map<String, CandidateVersion> available(List<CandidateVersion> versions) {
+		return versions.stream()
+						.collect(toMap(CandidateVersion::identifier, identity(), (version, _) -> version));
+	}
+
+	private static boolean vendors(List<CandidateVersion> versions) {
+		return versions.stream().anyMatch(version -> version.vendor() != null);
+	}
+
+	private record Release(String identifier, String vendor, VersionInfo versionInfo) {
+
+		private static Release of(String identifier, CandidateVersion available, boolean vendors) {
+			int separator = vendors ? identifier.lastIndexOf('-') : -1;
+			String vendor = separator > 0 ? identifier.substring(separator + 1) : "";
+			String version = available != null ? available.version() :
+							separator > 0 ? identifier.substring(0, separator) : identifier;
+
+			return new Release(identifier, vendor, VersionInfo.of(version));
+		}
+
+		/**
+		 * @return the vendor, major version and variant, the version following its numeric prefix,
+		 * digits included, so GraalVM builds for different Java releases, such as {@code 22.1.0.1.r17}
+		 * and {@code 22.1.0.1.r21}, are grouped separately
+		 */
+		private String group() {
+			String version = versionInfo.versionName();
+			int end = 0;
+			while (end < version.length() && Character.isDigit(version.charAt(end))) {
+				end++;
+			}
+
+			return vendor + " " + version.substring(0, end) + " " + version.replaceFirst("^[0-9.]+", "");
+		}
+	}
+}
+// end::retention[]
@@ -20,59 +20,124 @@ package is.codion.sdkboy.model;
 
 import is.codion.common.model.CancelException;
 import is.codion.common.model.preferences.UserPreferences;
+import is.codion.common.reactive.event.Event;
 import is.codion.common.reactive.observer.Observer;
 import is.codion.common.reactive.state.ObservableState;
 import is.codion.common.reactive.state.State;
 import is.codion.common.reactive.value.Value;
 import is.codion.common.utilities.logging.LoggerProxy;
 import is.codion.common.utilities.version.Version;
-import is.codion.plugin.flatlaf.intellij.themes.darkflat.DarkFlat;
 import is.codion.sdkboy.model.SDKBoyModel.CandidateModel.CandidateRow;
+import is.codion.sdkboy.model.SDKBoyModel.VersionModel.VersionRow;
+import is.codion.sdkboy.model.SearchIndex.Match;
 import is.codion.swing.common.model.component.combobox.FilterComboBoxModel;
 import is.codion.swing.common.model.component.table.FilterTableModel;
 import is.codion.swing.common.model.component.table.FilterTableModel.TableColumns;
 import is.codion.swing.common.model.worker.ProgressWorker.ProgressReporter;
 
 import ch.qos.logback.classic.Level;
-import io.github.jagodevreede.sdkman.api.ProgressInformation;
 import io.github.jagodevreede.sdkman.api.SdkManApi;
 import io.github.jagodevreede.sdkman.api.SdkManUiPreferences;
 import io.github.jagodevreede.sdkman.api.domain.Candidate;
 import io.github.jagodevreede.sdkman.api.domain.CandidateVersion;
-import io.github.jagodevreede.sdkman.api.http.DownloadTask;
 
 import java.io.File;
-import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalTime;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 import static io.github.jagodevreede.sdkman.api.SdkManApi.DEFAULT_SDKMAN_HOME;
+import static java.lang.Boolean.FALSE;
 import static java.lang.Boolean.TRUE;
 import static java.lang.Boolean.parseBoolean;
 import static javax.swing.SortOrder.ASCENDING;
 import static javax.swing.SortOrder.DESCENDING;
+import static javax.swing.SwingUtilities.invokeAndWait;
+import static javax.swing.SwingUtilities.invokeLater;
 
 // tag::sdkboy_model[]
 public final class SDKBoyModel {
 
 	public static final Version VERSION = Version.parse(SDKBoyModel.class, "/version.properties");
 
-	private final SdkManApi sdkMan = new SdkManApi(DEFAULT_SDKMAN_HOME);
+	private static final Duration PREDOWNLOAD_DELAY = Duration.ofMinutes(2);
+	private static final Duration PREDOWNLOAD_INTERVAL = Duration.ofHours(6);
+	// Never below the hour the SDKMAN api caches the catalogue for, see SdkManApi.DEFAUL_CACHE_DURATION
+	private static final Duration REVALIDATION_INTERVAL = Duration.ofMinutes(90);
+	private static final Duration REVALIDATION_JITTER = Duration.ofMinutes(30);
+	private static final Duration INDEX_DELAY = Duration.ofSeconds(30);
+
+	private final SDKBoyService service;
+	private final FlightRecording flightRecording = new FlightRecording();
+	private final Event<?> cancelPredownload = Event.event();
 
 	private final CandidateModel candidateModel;
 	private final VersionModel versionModel;
+	private final SearchModel searchModel;
 	private final PreferencesModel preferencesModel;
 
+	private QueryServer queryServer;
+
 	public SDKBoyModel() {
+		this(new SdkManApi(DEFAULT_SDKMAN_HOME), true);
+	}
+
+	/**
+	 * @param sdkMan the SDKMAN api
+	 * @param background false to skip starting the background services, the pre-download,
+	 * the catalogue revalidation and the installation watcher, such as for benchmarks
+	 */
+	SDKBoyModel(SdkManApi sdkMan, boolean background) {
+		this.service = new SDKBoyService(sdkMan, new Metrics());
 		candidateModel = new CandidateModel();
 		versionModel = new VersionModel();
+		searchModel = new SearchModel();
 		preferencesModel = new PreferencesModel();
+		try {
+			serveQueries(preferencesModel.serveQueries().is());
+		}
+		catch (RuntimeException e) {
+			// Most likely served by another instance, not worth failing the startup over
+			service.metrics().failure("Serving queries", e);
+		}
+		preferencesModel.serveQueries().addConsumer(this::serveQueries);
+		limitBandwidth();
+		Stream.of(preferencesModel.bandwidthLimit(), preferencesModel.downloadBandwidthLimit(), preferencesModel.deferLargeDownloads(),
+										preferencesModel.offPeakStart(), preferencesModel.offPeakEnd(), preferencesModel.largeDownloadThreshold())
+						.forEach(preference -> preference.addListener(this::limitBandwidth));
+		configureMirrors();
+		preferencesModel.mirrors().addListener(this::configureMirrors);
+		preferencesModel.hedgeThreshold().addListener(this::configureMirrors);
+		preferencesModel.sharedCache().addConsumer(this::sharedCache);
+		sharedCache(preferencesModel.sharedCache().get());
+		configureArchives();
+		preferencesModel.archiveCapacity().addListener(this::configureArchives);
+		preferencesModel.pinInstalledArchives().addListener(this::configureArchives);
+		preferencesModel.predownloadUpdates().addConsumer(enabled -> {
+			if (!enabled) {
+				cancelPredownload.run();
+			}
+		});
+		if (background) {
+			startBackgroundServices();
+		}
 	}
 
 	public CandidateModel candidateModel() {
@@ -83,22 +148,321 @@ public final class SDKBoyModel {
 		return versionModel;
 	}
 
+	public SearchModel searchModel() {
+		return searchModel;
+	}
+
 	public PreferencesModel preferencesModel() {
 		return preferencesModel;
 	}
 
+	public SDKBoyService service() {
+		return service;
+	}
+
+	public Metrics metrics() {
+		return service.metrics();
+	}
+
+	public FlightRecording flightRecording() {
+		return flightRecording;
+	}
+
+	/**
+	 * @return the query server, an empty Optional if queries are not being served
+	 */
+	public Optional<QueryServer> queryServer() {
+		return Optional.ofNullable(queryServer);
+	}
+
 	public void refresh() {
+		if (queryServer != null) {
+			queryServer.invalidate();
+		}
 		candidateModel.tableModel.items().refresh(_ ->
 						versionModel.tableModel.items().refresh());
 	}
 
+	private void startBackgroundServices() {
+		Thread.ofVirtual()
+						.name("SDKBOY pre-download")
+						.start(this::predownload);
+		Thread.ofVirtual()
+						.name("SDKBOY revalidation")
+						.start(this::revalidate);
+		InstallationWatcher.start(service.home(), candidates -> {
+			try {
+				// Walks and probes the changed versions here, rather than on the event dispatch thread
+				service.diskUsage(candidates);
+				service.releases(candidates);
+			}
+			catch (RuntimeException e) {
+				// Such as a directory removed while walking it, must not end the watcher
+				service.metrics().failure("Walking and probing changed versions", e);
+			}
+			try {
+				onInstallationChanged(candidates);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			catch (RuntimeException e) {
+				service.metrics().failure("Updating changed versions", e);
+			}
+		});
+	}
+
+	private void limitBandwidth() {
+		Bandwidth bandwidth = service.bandwidth();
+		bandwidth.limit(preferencesModel.bandwidthLimit().getOrThrow() * 1024L);
+		bandwidth.downloadLimit(preferencesModel.downloadBandwidthLimit().getOrThrow() * 1024L);
+		bandwidth.offPeak(preferencesModel.offPeak());
+	}
+
+	private void configureMirrors() {
+		Mirrors mirrors = service.mirrors();
+		mirrors.set(preferencesModel.mirrors().optional()
+						.map(urls -> List.of(urls.split(",")))
+						.orElse(List.of()));
+		mirrors.hedgeThreshold(preferencesModel.hedgeThreshold().getOrThrow() * 1024L);
+	}
+
+	private void sharedCache(String directory) {
+		service.sharedCache().directory(directory == null || directory.isBlank() ? null : Path.of(directory.trim()));
+	}
+
+	private void configureArchives() {
+		ArchiveStore archives = service.archives();
+		archives.capacity(preferencesModel.archiveCapacity().getOrThrow() * 1024L * 1024L);
+		archives.pinInstalled(preferencesModel.pinInstalledArchives().is());
+	}
+
+	/**
+	 * Pre-downloads the patch updates of the used versions now and then, when enabled,
+	 * in the background, see {@link SDKBoyService#predownload(Observer)}.
+	 */
+	private void predownload() {
+		try {
+			Thread.sleep(PREDOWNLOAD_DELAY);
+			while (true) {
+				if (preferencesModel.predownloadUpdates().is()) {
+					try {
+						service.predownload(cancelPredownload);
+					}
+					catch (CancelException e) {
+						// Disabled while downloading
+					}
+					catch (RuntimeException e) {
+						// Most likely offline, tried again next time
+						service.metrics().failure("Pre-downloading updates", e);
+					}
+				}
+				Thread.sleep(PREDOWNLOAD_INTERVAL);
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Revalidates the candidate and version catalogues now and then, in the background,
+	 * at jittered intervals, so instances started together do not revalidate in lockstep,
+	 * indexing the versions of all candidates for searching each time, see {@link SearchModel}.
+	 */
+	private void revalidate() {
+		try {
+			Thread.sleep(INDEX_DELAY);
+			searchModel.index();
+			while (true) {
+				Thread.sleep(revalidationInterval());
+				try {
+					CandidateRow selected = selectedCandidate();
+					invokeLater(service.scheduler().run(TaskScheduler.Priority.BACKGROUND, () ->
+									service.metrics().time(Metrics.CATALOGUE_REVALIDATION, () -> revalidateCatalogue(selected))));
+				}
+				catch (RuntimeException e) {
+					// Most likely offline, tried again next time
+					service.metrics().failure("Revalidating the catalogue", e);
+				}
+				searchModel.index();
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * @return the selected candidate, read on the event dispatch thread, null if none is selected
+	 */
+	private CandidateRow selectedCandidate() throws InterruptedException {
+		return onEventDispatchThread(() -> candidateModel.tableModel.selection().item().get());
+	}
+
+	/**
+	 * Fetches the candidates and the versions of the given candidate, touching no table model state.
+	 * @param selected the candidate selected when the revalidation started, null if none
+	 * @return applies only the rows inserted and removed since, on the event dispatch thread, without refreshing
+	 */
+	private Runnable revalidateCatalogue(CandidateRow selected) {
+		Collection<CandidateRow> candidates = candidateModel.items.candidates();
+		Collection<VersionRow> versions = selected == null ? List.of() : versionModel.items.candidateVersions(selected);
+
+		return () -> {
+			int changed = candidateModel.revalidated(candidates) + versionModel.revalidated(selected, versions);
+			if (changed > 0) {
+				service.metrics().counter(Metrics.CATALOGUE_CHANGED).add(changed);
+				if (queryServer != null) {
+					queryServer.invalidate();
+				}
+			}
+		};
+	}
+
+	/**
+	 * Updates the rows of the given candidates, and their versions if selected,
+	 * in place, after a change made outside of SDKBOY, without refreshing.
+	 * The rows are read on the event dispatch thread and their replacements built on the calling thread,
+	 * so only replacing them is left to the event dispatch thread.
+	 */
+	private void onInstallationChanged(Set<String> candidates) throws InterruptedException {
+		Rows rows = onEventDispatchThread(() -> new Rows(List.copyOf(candidateModel.tableModel.items().get()),
+						candidateModel.tableModel.selection().item().get(), List.copyOf(versionModel.tableModel.items().get())));
+		Map<CandidateRow, CandidateRow> candidateRows = candidateModel.updated(rows.candidates(), candidates);
+		Map<VersionRow, VersionRow> versionRows = rows.selected() == null || !candidates.contains(rows.selected().candidate().id()) ?
+						Map.of() : versionModel.updated(rows.selected(), rows.versions());
+		invokeLater(() -> {
+			if (queryServer != null) {
+				queryServer.invalidate();
+			}
+			candidateModel.replace(candidateRows);
+			versionModel.replace(rows.selected(), versionRows);
+		});
+	}
+
+	private void serveQueries(boolean serve) {
+		if (serve && queryServer == null) {
+			queryServer = QueryServer.start(service);
+		}
+		else if (!serve && queryServer != null) {
+			queryServer.close();
+			queryServer = null;
+		}
+	}
+
+	private static <T> T onEventDispatchThread(Supplier<T> supplier) throws InterruptedException {
+		AtomicReference<T> result = new AtomicReference<>();
+		try {
+			invokeAndWait(() -> result.set(supplier.get()));
+		}
+		catch (InvocationTargetException e) {
+			throw new RuntimeException(e.getCause());
+		}
+
+		return result.get();
+	}
+
+	private static Duration revalidationInterval() {
+		long jitter = REVALIDATION_JITTER.toMillis();
+
+		return REVALIDATION_INTERVAL.plusMillis(ThreadLocalRandom.current().nextLong(-jitter, jitter + 1));
+	}
+
+	/**
+	 * Applies only the rows inserted into and removed from the given revalidated rows,
+	 * leaving the rest as is, unless the table model is being refreshed.
+	 */
+	private static <R> Revalidation<R> revalidated(FilterTableModel<R, ?> tableModel, Collection<R> revalidated) {
+		if (tableModel.items().refresher().active().is()) {
+			return new Revalidation<>(List.of(), List.of());
+		}
+		Set<R> current = new HashSet<>(tableModel.items().get());
+		Set<R> retained = new HashSet<>(revalidated);
+		List<R> removed = current.stream()
+						.filter(row -> !retained.contains(row))
+						.toList();
+		List<R> inserted = revalidated.stream()
+						.filter(row -> !current.contains(row))
+						.toList();
+		if (!removed.isEmpty()) {
+			tableModel.items().remove(removed);
+		}
+		if (!inserted.isEmpty()) {
+			tableModel.items().add(inserted);
+		}
+
+		return new Revalidation<>(inserted, removed);
+	}
+
+	private static DiskUsage.Size size(Long bytes) {
+		return bytes == null ? null : new DiskUsage.Size(bytes);
+	}
+
+	private static void filterItems(String table, FilterTableModel<?, ?> tableModel) {
+		FlightEvents.TableUpdate event = new FlightEvents.TableUpdate();
+		event.table = table;
+		event.operation = FlightEvents.TableUpdate.FILTER;
+		event.begin();
+		tableModel.items().filter();
+		event.rows = tableModel.getRowCount();
+		event.commit();
+	}
+
+	/**
+	 * The rows read on the event dispatch thread
+	 * @param selected the selected candidate, null if none
+	 * @param versions the version rows of the selected candidate
+	 */
+	private record Rows(List<CandidateRow> candidates, CandidateRow selected, List<VersionRow> versions) {}
+
+	private record Revalidation<R>(List<R> inserted, List<R> removed) {
+
+		private int changed() {
+			return inserted.size() + removed.size();
+		}
+	}
+
+	/**
+	 * Emits a table refresh event, spanning the time the refresher is active.
+	 */
+	private static final class TableRefreshEvents implements Consumer<Boolean> {
+
+		private final String table;
+		private final FilterTableModel<?, ?> tableModel;
+
+		private FlightEvents.TableUpdate event;
+
+		private TableRefreshEvents(String table, FilterTableModel<?, ?> tableModel) {
+			this.table = table;
+			this.tableModel = tableModel;
+		}
+
+		@Override
+		public void accept(Boolean active) {
+			if (active) {
+				event = new FlightEvents.TableUpdate();
+				event.table = table;
+				event.operation = FlightEvents.TableUpdate.REFRESH;
+				event.begin();
+			}
+			else if (event != null) {
+				event.rows = tableModel.getRowCount();
+				event.commit();
+				event = null;
+			}
+		}
+	}
+
 	public final class CandidateModel {
 
+		private final CandidateItems items = new CandidateItems();
+		private final CandidateIncluded included = new CandidateIncluded();
 		private final FilterTableModel<CandidateRow, CandidateColumn> tableModel =
 						FilterTableModel.builder()
 										.columns(new CandidateColumns())
-										.items(new CandidateItems())
-										.included(new CandidateIncluded())
+										.items(items)
+										.included(included)
 										.build();
 		private final Value<String> filter = Value.builder()
 						.<String>nullable()
@@ -110,6 +474,7 @@ public final class SDKBoyModel {
 
 		private CandidateModel() {
 			tableModel.sort().order(CandidateColumn.NAME).set(ASCENDING);
+			tableModel.items().refresher().active().addConsumer(new TableRefreshEvents("candidates", tableModel));
 			tableModel.items().refresh();
 		}
 
@@ -125,17 +490,75 @@ public final class SDKBoyModel {
 			return installedOnly;
 		}
 
+		/**
+		 * @param rows the candidate rows
+		 * @param candidates the candidates which have changed
+		 * @return the replacements of the rows which have changed, built off the event dispatch thread
+		 */
+		private Map<CandidateRow, CandidateRow> updated(Collection<CandidateRow> rows, Set<String> candidates) {
+			Map<CandidateRow, CandidateRow> updated = new HashMap<>();
+			Map<String, Long> sizes = service.diskUsage(candidates);
+			rows.stream()
+							.filter(row -> candidates.contains(row.candidate().id()))
+							.forEach(row -> {
+								int installed = service.installed(row.candidate().id());
+								DiskUsage.Size size = size(sizes.get(row.candidate().id()));
+								if (installed != row.installed() || !Objects.equals(size, row.size())) {
+									updated.put(row, new CandidateRow(row.candidate(), installed, size));
+								}
+							});
+
+			return updated;
+		}
+
+		private void replace(Map<CandidateRow, CandidateRow> updated) {
+			if (!updated.isEmpty()) {
+				tableModel.items().replace(updated);
+				if (installedOnly.is()) {
+					filterItems("candidates", tableModel);
+				}
+			}
+		}
+
+		/**
+		 * Selects the given candidate, clearing the filters in case they exclude it
+		 */
+		private void select(String candidate) {
+			tableModel.items().get().stream()
+							.filter(row -> row.candidate().id().equals(candidate))
+							.findFirst()
+							.ifPresent(row -> {
+								if (!included.test(row)) {
+									filter.set(null);
+									installedOnly.set(false);
+								}
+								tableModel.selection().item().set(row);
+							});
+		}
+
+		/**
+		 * @return the number of rows inserted and removed
+		 */
+		private int revalidated(Collection<CandidateRow> candidates) {
+			return SDKBoyModel.revalidated(tableModel, candidates).changed();
+		}
+
 		private void onFilterChanged() {
-			tableModel.items().filter();
+			filterItems("candidates", tableModel);
 			tableModel.selection().indexes().clear();
 			tableModel.selection().indexes().increment();
 		}
 
 		public enum CandidateColumn {
-			NAME, INSTALLED
+			NAME, INSTALLED, SIZE
 		}
 
-		public record CandidateRow(Candidate candidate, int installed) {
+		/**
+		 * @param candidate the candidate
+		 * @param installed the number of installed versions
+		 * @param size the disk usage of the installed versions, null if none is installed
+		 */
+		public record CandidateRow(Candidate candidate, int installed, DiskUsage.Size size) {
 
 			@Override
 			public String toString() {
@@ -172,6 +595,7 @@ public final class SDKBoyModel {
 				return switch (column) {
 					case NAME -> String.class;
 					case INSTALLED -> Integer.class;
+					case SIZE -> DiskUsage.Size.class;
 				};
 			}
 
@@ -180,6 +604,7 @@ public final class SDKBoyModel {
 				return switch (column) {
 					case NAME -> "Name";
 					case INSTALLED -> "Installed";
+					case SIZE -> "Size";
 				};
 			}
 
@@ -188,6 +613,7 @@ public final class SDKBoyModel {
 				return switch (column) {
 					case NAME -> row.candidate.name();
 					case INSTALLED -> row.installed() == 0 ? null : row.installed();
+					case SIZE -> row.size();
 				};
 			}
 
@@ -201,19 +627,22 @@ public final class SDKBoyModel {
 			}
 		}
 
-		private class CandidateItems implements Supplier<Collection<CandidateRow>> {
+		final class CandidateItems implements Supplier<Collection<CandidateRow>> {
 
 			@Override
 			public Collection<CandidateRow> get() {
-				try {
-					return sdkMan.getCandidates().get().stream()
-									.map(candidate -> new CandidateRow(candidate,
-													sdkMan.getLocalInstalledVersions(candidate.id()).size()))
-									.toList();
-				}
-				catch (Exception e) {
-					throw new RuntimeException(e);
-				}
+				return service.metrics().time(Metrics.CANDIDATE_REFRESH, this::candidates);
+			}
+
+			private List<CandidateRow> candidates() {
+				List<Candidate> candidates = service.candidates();
+				Map<String, Long> sizes = service.diskUsage(candidates.stream()
+								.map(Candidate::id)
+								.toList());
+
+				return candidates.stream()
+								.map(candidate -> new CandidateRow(candidate, service.installed(candidate.id()), size(sizes.get(candidate.id()))))
+								.toList();
 			}
 		}
 
@@ -235,14 +664,14 @@ public final class SDKBoyModel {
 
 	public final class VersionModel {
 
-		private static final int DONE = 100;
-
+		private final VersionItems items = new VersionItems();
+		private final VersionIncluded included = new VersionIncluded();
 		private final FilterTableModel<VersionRow, VersionColumn> tableModel =
 						FilterTableModel.builder()
 										.columns(new VersionColumns())
-										.items(new VersionItems())
+										.items(items)
 										.onItemSelected(this::onVersionSelected)
-										.included(new VersionIncluded())
+										.included(included)
 										.build();
 		private final State selectedInstalled = State.state();
 		private final State selectedUsed = State.state();
@@ -259,10 +688,14 @@ public final class SDKBoyModel {
 		private final State usedOnly = State.builder()
 						.listener(this::onFilterChanged)
 						.build();
+		private final Set<VersionRow> inserted = new HashSet<>();
+
+		private Match pending;
 
 		private VersionModel() {
 			tableModel.sort().order(VersionColumn.VENDOR).set(ASCENDING);
 			tableModel.sort().order(VersionColumn.VERSION).add(DESCENDING);
+			tableModel.items().refresher().active().addConsumer(new TableRefreshEvents("versions", tableModel));
 			candidateModel.tableModel.selection().item().addListener(this::onCandidateSelected);
 		}
 
@@ -294,6 +727,15 @@ public final class SDKBoyModel {
 			return usedOnly;
 		}
 
+		/**
+		 * @param row the row
+		 * @return true if the row was inserted by a background revalidation since the versions were refreshed
+		 * and new versions should be highlighted, see {@link PreferencesModel#highlightNewVersions()}
+		 */
+		public boolean inserted(VersionRow row) {
+			return preferencesModel.highlightNewVersions().is() && inserted.contains(row);
+		}
+
 		public VersionRow selected() {
 			return tableModel.selection().item().getOrThrow();
 		}
@@ -302,55 +744,114 @@ public final class SDKBoyModel {
 			tableModel.items().refresh();
 		}
 
-		public void install(ProgressReporter<String> progress, State downloading, Observer<?> cancel) {
+		public void install(ProgressReporter<InstallProgress> progress, State downloading, Observer<?> cancel) {
 			VersionRow selected = selected();
-			if (selected.version.available()) {
-				progress.report(DONE);
-			}
-			else {
-				download(selected, progress, downloading, cancel);
-			}
-			progress.publish("Installing");
-			sdkMan.install(selected.candidate.id(), selected.version.identifier());
-			progress.publish("Done");
+			service.install(selected.candidate.id(), selected.version.identifier(), progress::publish, downloading, cancel);
 		}
 
 		public void uninstall() {
 			VersionRow selected = selected();
-			sdkMan.uninstall(selected.candidate.id(), selected.version.identifier());
+			service.uninstall(selected.candidate.id(), selected.version.identifier());
 		}
 
 		public void use() {
 			VersionRow selected = selected();
-			try {
-				sdkMan.changeGlobal(selected.candidate.id(), selected.version.identifier());
+			service.use(selected.candidate.id(), selected.version.identifier());
+		}
+
+		/**
+		 * @param candidateRow the selected candidate
+		 * @param rows the version rows of the selected candidate
+		 * @return the replacements of the rows which have changed, built off the event dispatch thread
+		 */
+		private Map<VersionRow, VersionRow> updated(CandidateRow candidateRow, Collection<VersionRow> rows) {
+			String candidate = candidateRow.candidate().id();
+			String inUse = service.current(candidate).orElse(null);
+			Map<String, Long> sizes = service.diskUsage(candidate);
+			Map<String, ReleaseFiles.Metadata> releases = service.releases(candidate);
+			Map<VersionRow, VersionRow> updated = new HashMap<>();
+			for (VersionRow row : rows) {
+				String identifier = row.version().identifier();
+				boolean installed = service.isInstalled(candidate, identifier);
+				boolean downloaded = service.isDownloaded(candidate, identifier);
+				boolean used = identifier.equals(inUse);
+				DiskUsage.Size size = size(sizes.get(identifier));
+				ReleaseFiles.Metadata release = releases.get(identifier);
+				if (installed != row.version().installed() || downloaded != row.version().available() ||
+								used != row.used() || !Objects.equals(size, row.size()) || !Objects.equals(release, row.release())) {
+					updated.put(row, new VersionRow(row.candidate(), new CandidateVersion(row.version(), installed, downloaded),
+									row.versionInfo(), used, size, release));
+				}
 			}
-			catch (IOException e) {
-				throw new RuntimeException(e);
+
+			return updated;
+		}
+
+		/**
+		 * @param candidate the candidate the replacements were built for, ignored if another candidate has since been selected
+		 * @param updated the replacement rows
+		 */
+		private void replace(CandidateRow candidate, Map<VersionRow, VersionRow> updated) {
+			if (!updated.isEmpty() && candidate.equals(candidateModel.tableModel.selection().item().get())) {
+				tableModel.items().replace(updated);
+				if (installedOnly.is() || downloadedOnly.is() || usedOnly.is()) {
+					filterItems("versions", tableModel);
+				}
+				onVersionSelected(tableModel.selection().item().get());
 			}
 		}
 
-		private void download(VersionRow versionRow, ProgressReporter<String> progress,
-													State downloading, Observer<?> cancel) {
-			DownloadTask task = sdkMan.download(versionRow.candidate.id(), versionRow.version.identifier());
-			task.setProgressInformation(new DownloadProgress(progress, downloading));
-			Runnable cancelTask = task::cancel;
-			cancel.addListener(cancelTask);
-			try {
-				task.download();
+		/**
+		 * Selects the version of the given match, once the versions of its candidate have been refreshed
+		 */
+		private void select(Match match) {
+			pending = match;
+			if (!tableModel.items().refresher().active().is()) {
+				selectPending();
 			}
-			finally {
-				// Prevent a memory leak, the cancel Observer
-				// comes from a single InstallTask instance
-				cancel.removeListener(cancelTask);
+		}
+
+		/**
+		 * Selects the pending version, if its candidate is selected, clearing the filters in case they exclude it
+		 */
+		private void selectPending() {
+			CandidateRow selectedCandidate = candidateModel.tableModel.selection().item().get();
+			if (pending == null || selectedCandidate == null || !selectedCandidate.candidate().id().equals(pending.candidate().id())) {
+				return;
 			}
-			if (task.isCancelled()) {
-				throw new CancelException();
+			String identifier = pending.identifier();
+			pending = null;
+			tableModel.items().get().stream()
+							.filter(row -> row.version().identifier().equals(identifier))
+							.findFirst()
+							.ifPresent(row -> {
+								if (!included.test(row)) {
+									filter.set(null);
+									installedOnly.set(false);
+									downloadedOnly.set(false);
+									usedOnly.set(false);
+								}
+								tableModel.selection().item().set(row);
+							});
+		}
+
+		/**
+		 * @param candidate the candidate the versions were fetched for
+		 * @return the number of rows inserted and removed, 0 if another candidate has since been selected
+		 */
+		private int revalidated(CandidateRow candidate, Collection<VersionRow> versions) {
+			if (candidate == null || !candidate.equals(candidateModel.tableModel.selection().item().get())) {
+				return 0;
 			}
+			Revalidation<VersionRow> revalidation = SDKBoyModel.revalidated(tableModel, versions);
+			inserted.addAll(revalidation.inserted());
+			revalidation.removed().forEach(inserted::remove);
+
+			return revalidation.changed();
 		}
 
 		private void onFilterChanged() {
-			tableModel.items().filter();
+			filterItems("versions", tableModel);
 			if (!filter.isNull() || tableModel.selection().empty().is()) {
 				tableModel.selection().indexes().clear();
 				tableModel.selection().indexes().increment();
@@ -358,7 +859,9 @@ public final class SDKBoyModel {
 		}
 
 		private void onCandidateSelected() {
+			inserted.clear();
 			tableModel.items().refresh(_ -> {
+				selectPending();
 				if (tableModel.selection().empty().is()) {
 					tableModel.selection().indexes().increment();
 				}
@@ -371,10 +874,19 @@ public final class SDKBoyModel {
 		}
 
 		public enum VersionColumn {
-			VENDOR, VERSION, INSTALLED, DOWNLOADED, USED
+			VENDOR, VERSION, RELEASE, IMPLEMENTOR, ARCHITECTURE, INSTALLED, DOWNLOADED, USED, SIZE
 		}
 
-		public record VersionRow(Candidate candidate, CandidateVersion version, VersionInfo versionInfo, boolean used) {
+		/**
+		 * @param candidate the candidate
+		 * @param version the version
+		 * @param versionInfo the version info, for sorting
+		 * @param used true if this version is in use
+		 * @param size the disk usage, null if not installed
+		 * @param release the release metadata, null if not installed or unavailable
+		 */
+		public record VersionRow(Candidate candidate, CandidateVersion version, VersionInfo versionInfo, boolean used,
+														 DiskUsage.Size size, ReleaseFiles.Metadata release) {
 
 			@Override
 			public boolean equals(Object object) {
@@ -451,7 +963,9 @@ public final class SDKBoyModel {
 				return switch (column) {
 					case VENDOR -> String.class;
 					case VERSION -> VersionInfo.class;
+					case RELEASE, IMPLEMENTOR, ARCHITECTURE -> String.class;
 					case INSTALLED, DOWNLOADED, USED -> Boolean.class;
+					case SIZE -> DiskUsage.Size.class;
 				};
 			}
 
@@ -460,9 +974,13 @@ public final class SDKBoyModel {
 				return switch (column) {
 					case VENDOR -> "Vendor";
 					case VERSION -> "Version";
+					case RELEASE -> "Release";
+					case IMPLEMENTOR -> "Implementor";
+					case ARCHITECTURE -> "Architecture";
 					case INSTALLED -> "Installed";
 					case DOWNLOADED -> "Downloaded";
 					case USED -> "Used";
+					case SIZE -> "Size";
 				};
 			}
 
@@ -471,9 +989,13 @@ public final class SDKBoyModel {
 				return switch (column) {
 					case VENDOR -> row.version.vendor();
 					case VERSION -> row.versionInfo();
+					case RELEASE -> row.release == null ? null : row.release.version();
+					case IMPLEMENTOR -> row.release == null ? null : row.release.implementor();
+					case ARCHITECTURE -> row.release == null ? null : row.release.architecture();
 					case INSTALLED -> row.version.installed();
 					case DOWNLOADED -> row.version.available();
 					case USED -> row.used();
+					case SIZE -> row.size();
 				};
 			}
 		}
@@ -483,22 +1005,20 @@ public final class SDKBoyModel {
 			@Override
 			public Collection<VersionRow> get() {
 				return candidateModel.tableModel.selection().item().optional()
-								.map(this::candidateVersions)
+								.map(candidateRow -> service.metrics().time(Metrics.VERSION_REFRESH, () -> candidateVersions(candidateRow)))
 								.orElse(List.of());
 			}
 
 			private Collection<VersionRow> candidateVersions(CandidateRow candidateRow) {
-				try {
-					String inUse = sdkMan.resolveCurrentVersion(candidateRow.candidate().id());
-
-					return sdkMan.getVersions(candidateRow.candidate().id()).stream()
-									.map(version -> new VersionRow(candidateRow.candidate(), version,
-													VersionInfo.of(version.version()), version.identifier().equals(inUse)))
-									.toList();
-				}
-				catch (Exception e) {
-					throw new RuntimeException(e);
-				}
+				String inUse = service.current(candidateRow.candidate().id()).orElse(null);
+				Map<String, Long> sizes = service.diskUsage(candidateRow.candidate().id());
+				Map<String, ReleaseFiles.Metadata> releases = service.releases(candidateRow.candidate().id());
+
+				return service.versions(candidateRow.candidate().id()).stream()
+								.map(version -> new VersionRow(candidateRow.candidate(), version,
+												VersionInfo.of(version.version()), version.identifier().equals(inUse),
+												size(sizes.get(version.identifier())), releases.get(version.identifier())))
+								.toList();
 			}
 		}
 
@@ -524,47 +1044,186 @@ public final class SDKBoyModel {
 								.map(String::trim)
 								.filter(s -> !s.isEmpty());
 				String version = candidateVersion.version().toLowerCase();
-				if (candidateVersion.vendor() == null) {
-					return strings.allMatch(version::contains);
+				String vendor = candidateVersion.vendor() == null ? null : candidateVersion.vendor().toLowerCase();
+				ReleaseFiles.Metadata release = versionRow.release;
+
+				// The release metadata is probed along with the versions, so filtering on it requires no I/O
+				return strings.allMatch(filter -> version.contains(filter) ||
+								(vendor != null && vendor.contains(filter)) ||
+								(release != null && release.contains(filter)));
+			}
+		}
+	}
+
+	/**
+	 * Searches the versions of all candidates, see {@link SearchIndex}, indexed in the background
+	 * after startup and each time the catalogue is revalidated.
+	 */
+	public final class SearchModel {
+
+		private static final int LIMIT = 200;
+
+		private final FilterTableModel<Match, MatchColumn> tableModel =
+						FilterTableModel.builder()
+										.columns(new MatchColumns())
+										.items(new MatchItems())
+										.build();
+		private final Value<String> query = Value.builder()
+						.<String>nullable()
+						.listener(this::search)
+						.build();
+		private final State indexed = State.state();
+		private final AtomicBoolean indexing = new AtomicBoolean();
+
+		private volatile SearchIndex index;
+
+		private SearchModel() {}
+
+		public FilterTableModel<Match, MatchColumn> tableModel() {
+			return tableModel;
+		}
+
+		public Value<String> query() {
+			return query;
+		}
+
+		/**
+		 * @return true once the versions of all candidates have been indexed
+		 */
+		public ObservableState indexed() {
+			return indexed.observable();
+		}
+
+		/**
+		 * Indexes the versions of all candidates in the background, see {@link SDKBoyService#catalogue()},
+		 * unless already being indexed.
+		 */
+		public void index() {
+			if (indexing.compareAndSet(false, true)) {
+				Thread.ofVirtual()
+								.name("SDKBOY search index")
+								.start(this::indexCatalogue);
+			}
+		}
+
+		/**
+		 * Selects the candidate and version of the selected match, clearing the filters in case they exclude either
+		 */
+		public void select() {
+			tableModel.selection().item().optional().ifPresent(match -> {
+				candidateModel.select(match.candidate().id());
+				versionModel.select(match);
+			});
+		}
+
+		private void search() {
+			tableModel.items().refresh(_ -> {
+				if (tableModel.selection().empty().is()) {
+					tableModel.selection().indexes().increment();
 				}
-				String vendor = candidateVersion.vendor().toLowerCase();
+			});
+		}
 
-				return strings.allMatch(filter -> version.contains(filter) || vendor.contains(filter));
+		private void indexCatalogue() {
+			try {
+				SearchIndex searchIndex = service.metrics().time(Metrics.SEARCH_INDEX, () -> SearchIndex.of(service.catalogue()));
+				invokeLater(() -> {
+					index = searchIndex;
+					indexed.set(true);
+					if (!query.isNull()) {
+						search();
+					}
+				});
 			}
+			catch (RuntimeException e) {
+				// Most likely offline, tried again when the catalogue is next revalidated
+				service.metrics().failure("Indexing the catalogue", e);
+			}
+			finally {
+				indexing.set(false);
+			}
+		}
+
+		public enum MatchColumn {
+			CANDIDATE, VERSION, VENDOR
 		}
 
-		private static final class DownloadProgress implements ProgressInformation {
+		private static final class MatchColumns implements TableColumns<Match, MatchColumn> {
 
-			private final ProgressReporter<String> progress;
-			private final State downloading;
+			private static final List<MatchColumn> IDENTIFIERS = List.of(MatchColumn.values());
 
-			private DownloadProgress(ProgressReporter<String> progress, State downloading) {
-				this.progress = progress;
-				this.downloading = downloading;
+			@Override
+			public List<MatchColumn> identifiers() {
+				return IDENTIFIERS;
 			}
 
 			@Override
-			public void publishProgress(int value) {
-				downloading.set(value >= 1 && value < 100);
-				if (downloading.is()) {
-					progress.publish("Downloading");
-					progress.report(value);
-				}
-				else {
-					progress.publish("Extracting");
-				}
+			public Class<?> columnClass(MatchColumn column) {
+				return String.class;
 			}
 
 			@Override
-			public void publishState(String state) {}
+			public String caption(MatchColumn column) {
+				return switch (column) {
+					case CANDIDATE -> "Candidate";
+					case VERSION -> "Version";
+					case VENDOR -> "Vendor";
+				};
+			}
+
+			@Override
+			public Object value(Match match, MatchColumn column) {
+				return switch (column) {
+					case CANDIDATE -> match.candidate().name();
+					case VERSION -> match.version();
+					case VENDOR -> match.vendor();
+				};
+			}
+		}
+
+		private final class MatchItems implements Supplier<Collection<Match>> {
+
+			@Override
+			public Collection<Match> get() {
+				SearchIndex searchIndex = index;
+				String search = query.get();
+				if (searchIndex == null || search == null) {
+					return List.of();
+				}
+
+				return service.metrics().time(Metrics.SEARCH, () -> searchIndex.search(search, LIMIT));
+			}
 		}
 	}
 
 	public static final class PreferencesModel {
 
 		private static final String LOOK_AND_FEEL = "SDKBOY.lookAndFeel";
+		// The class name, referencing the class would load it along with the FlatLaf IntelliJ theme base classes
+		private static final String DEFAULT_LOOK_AND_FEEL = "is.codion.plugin.flatlaf.intellij.themes.darkflat.DarkFlat";
 		private static final String CONFIRM_ACTIONS = "SDKBOY.confirmActions";
 		private static final String CONFIRM_EXIT = "SDKBOY.confirmExit";
+		private static final String STALL_THRESHOLD = "SDKBOY.stallThreshold";
+		private static final int DEFAULT_STALL_THRESHOLD = 50;
+		private static final String SERVE_QUERIES = "SDKBOY.serveQueries";
+		private static final String BANDWIDTH_LIMIT = "SDKBOY.bandwidthLimit";
+		private static final String DOWNLOAD_BANDWIDTH_LIMIT = "SDKBOY.downloadBandwidthLimit";
+		private static final String DEFER_LARGE_DOWNLOADS = "SDKBOY.deferLargeDownloads";
+		private static final String OFF_PEAK_START = "SDKBOY.offPeakStart";
+		private static final int DEFAULT_OFF_PEAK_START = 22;
+		private static final String OFF_PEAK_END = "SDKBOY.offPeakEnd";
+		private static final int DEFAULT_OFF_PEAK_END = 6;
+		private static final String LARGE_DOWNLOAD_THRESHOLD = "SDKBOY.largeDownloadThreshold";
+		private static final int DEFAULT_LARGE_DOWNLOAD_THRESHOLD = 100;
+		private static final String MIRRORS = "SDKBOY.mirrors";
+		private static final String HEDGE_THRESHOLD = "SDKBOY.hedgeThreshold";
+		private static final int DEFAULT_HEDGE_THRESHOLD = 1024;
+		private static final String SHARED_CACHE = "SDKBOY.sharedCache";
+		private static final String ARCHIVE_CAPACITY = "SDKBOY.archiveCapacity";
+		private static final String PIN_INSTALLED_ARCHIVES = "SDKBOY.pinInstalledArchives";
+		private static final String PREDOWNLOAD_UPDATES = "SDKBOY.predownloadUpdates";
+		private static final String HIGHLIGHT_NEW_VERSIONS = "SDKBOY.highlightNewVersions";
+		private static final String RELEASE_COLUMNS = "SDKBOY.releaseColumns";
 
 		private final LoggerProxy logger = LoggerProxy.instance();
 		private final SdkManUiPreferences sdkManUi = SdkManUiPreferences.getInstance();
@@ -574,6 +1233,23 @@ public final class SDKBoyModel {
 		private final State keepDownloadsAvailable = State.state(sdkManUi.keepDownloadsAvailable);
 		private final State confirmActions = State.state(getConfirmActionsPreference());
 		private final State confirmExit = State.state(getConfirmExitPreference());
+		private final Value<Integer> stallThreshold = Value.nonNull(getStallThresholdPreference());
+		private final State serveQueries = State.state(getServeQueriesPreference());
+		private final Value<Integer> bandwidthLimit = Value.nonNull(getIntegerPreference(BANDWIDTH_LIMIT, 0));
+		private final Value<Integer> downloadBandwidthLimit = Value.nonNull(getIntegerPreference(DOWNLOAD_BANDWIDTH_LIMIT, 0));
+		private final State deferLargeDownloads = State.state(getDeferLargeDownloadsPreference());
+		private final Value<Integer> offPeakStart = Value.nonNull(getIntegerPreference(OFF_PEAK_START, DEFAULT_OFF_PEAK_START));
+		private final Value<Integer> offPeakEnd = Value.nonNull(getIntegerPreference(OFF_PEAK_END, DEFAULT_OFF_PEAK_END));
+		private final Value<Integer> largeDownloadThreshold =
+						Value.nonNull(getIntegerPreference(LARGE_DOWNLOAD_THRESHOLD, DEFAULT_LARGE_DOWNLOAD_THRESHOLD));
+		private final Value<String> mirrors = Value.nullable(UserPreferences.get(MIRRORS, ""));
+		private final Value<Integer> hedgeThreshold = Value.nonNull(getIntegerPreference(HEDGE_THRESHOLD, DEFAULT_HEDGE_THRESHOLD));
+		private final Value<String> sharedCache = Value.nullable(UserPreferences.get(SHARED_CACHE, ""));
+		private final Value<Integer> archiveCapacity = Value.nonNull(getIntegerPreference(ARCHIVE_CAPACITY, 0));
+		private final State pinInstalledArchives = State.state(getPinInstalledArchivesPreference());
+		private final State predownloadUpdates = State.state(getPredownloadUpdatesPreference());
+		private final State highlightNewVersions = State.state(getHighlightNewVersionsPreference());
+		private final State releaseColumns = State.state(getReleaseColumnsPreference());
 		private final FilterComboBoxModel<Level> logLevels = FilterComboBoxModel.builder()
 						.items(logger.levels().stream()
 										.map(Level.class::cast)
@@ -606,6 +1282,131 @@ public final class SDKBoyModel {
 			return confirmExit;
 		}
 
+		/**
+		 * @return the time in milliseconds an event may run on the event dispatch thread before it counts as a stall
+		 */
+		public Value<Integer> stallThreshold() {
+			return stallThreshold;
+		}
+
+		/**
+		 * @return true if queries should be answered over a local socket, see {@link QueryServer}
+		 */
+		public State serveQueries() {
+			return serveQueries;
+		}
+
+		/**
+		 * @return the bandwidth shared by all downloads in KiB/s, 0 for unlimited
+		 */
+		public Value<Integer> bandwidthLimit() {
+			return bandwidthLimit;
+		}
+
+		/**
+		 * @return the bandwidth of each download in KiB/s, 0 for unlimited
+		 */
+		public Value<Integer> downloadBandwidthLimit() {
+			return downloadBandwidthLimit;
+		}
+
+		/**
+		 * @return true if downloads larger than the {@link #largeDownloadThreshold()} should wait for the off-peak hours
+		 */
+		public State deferLargeDownloads() {
+			return deferLargeDownloads;
+		}
+
+		/**
+		 * @return the hour of day the off-peak hours start
+		 */
+		public Value<Integer> offPeakStart() {
+			return offPeakStart;
+		}
+
+		/**
+		 * @return the hour of day the off-peak hours end
+		 */
+		public Value<Integer> offPeakEnd() {
+			return offPeakEnd;
+		}
+
+		/**
+		 * @return the size in MiB above which downloads are deferred to the off-peak hours
+		 */
+		public Value<Integer> largeDownloadThreshold() {
+			return largeDownloadThreshold;
+		}
+
+		/**
+		 * @return the off-peak window, null if large downloads should not be deferred
+		 */
+		public Bandwidth.OffPeak offPeak() {
+			if (!deferLargeDownloads.is()) {
+				return null;
+			}
+
+			return new Bandwidth.OffPeak(LocalTime.of(Math.floorMod(offPeakStart.getOrThrow(), 24), 0),
+							LocalTime.of(Math.floorMod(offPeakEnd.getOrThrow(), 24), 0),
+							largeDownloadThreshold.getOrThrow() * 1024L * 1024L);
+		}
+
+		/**
+		 * @return the mirror base urls, separated by comma
+		 */
+		public Value<String> mirrors() {
+			return mirrors;
+		}
+
+		/**
+		 * @return the throughput in KiB/s below which a hedged request is sent to the next mirror, 0 to never hedge
+		 */
+		public Value<Integer> hedgeThreshold() {
+			return hedgeThreshold;
+		}
+
+		/**
+		 * @return the archive cache directory shared between users and machines, such as an NFS mount, empty to disable
+		 */
+		public Value<String> sharedCache() {
+			return sharedCache;
+		}
+
+		/**
+		 * @return the total size in MiB of the kept archives, above which the least recently used ones are evicted, 0 for unlimited
+		 */
+		public Value<Integer> archiveCapacity() {
+			return archiveCapacity;
+		}
+
+		/**
+		 * @return true if the archives of installed versions should never be evicted
+		 */
+		public State pinInstalledArchives() {
+			return pinInstalledArchives;
+		}
+
+		/**
+		 * @return true if the patch updates of the used versions should be downloaded in the background
+		 */
+		public State predownloadUpdates() {
+			return predownloadUpdates;
+		}
+
+		/**
+		 * @return true if versions found by the background catalogue revalidation should be highlighted
+		 */
+		public State highlightNewVersions() {
+			return highlightNewVersions;
+		}
+
+		/**
+		 * @return true if the release metadata columns of installed versions should be displayed, see {@link ReleaseFiles}
+		 */
+		public State releaseColumns() {
+			return releaseColumns;
+		}
+
 		public FilterComboBoxModel<Level> logLevels() {
 			return logLevels;
 		}
@@ -632,12 +1433,28 @@ public final class SDKBoyModel {
 		}
 
 		public static String getLookAndFeelPreference() {
-			return UserPreferences.get(LOOK_AND_FEEL, DarkFlat.class.getName());
+			return UserPreferences.get(LOOK_AND_FEEL, DEFAULT_LOOK_AND_FEEL);
 		}
 
 		public void save() {
 			UserPreferences.put(CONFIRM_ACTIONS, Boolean.toString(confirmActions.is()));
 			UserPreferences.put(CONFIRM_EXIT, Boolean.toString(confirmExit.is()));
+			UserPreferences.put(STALL_THRESHOLD, Integer.toString(stallThreshold.getOrThrow()));
+			UserPreferences.put(SERVE_QUERIES, Boolean.toString(serveQueries.is()));
+			UserPreferences.put(BANDWIDTH_LIMIT, Integer.toString(bandwidthLimit.getOrThrow()));
+			UserPreferences.put(DOWNLOAD_BANDWIDTH_LIMIT, Integer.toString(downloadBandwidthLimit.getOrThrow()));
+			UserPreferences.put(DEFER_LARGE_DOWNLOADS, Boolean.toString(deferLargeDownloads.is()));
+			UserPreferences.put(OFF_PEAK_START, Integer.toString(offPeakStart.getOrThrow()));
+			UserPreferences.put(OFF_PEAK_END, Integer.toString(offPeakEnd.getOrThrow()));
+			UserPreferences.put(LARGE_DOWNLOAD_THRESHOLD, Integer.toString(largeDownloadThreshold.getOrThrow()));
+			UserPreferences.put(MIRRORS, mirrors.optional().orElse(""));
+			UserPreferences.put(HEDGE_THRESHOLD, Integer.toString(hedgeThreshold.getOrThrow()));
+			UserPreferences.put(SHARED_CACHE, sharedCache.optional().orElse(""));
+			UserPreferences.put(ARCHIVE_CAPACITY, Integer.toString(archiveCapacity.getOrThrow()));
+			UserPreferences.put(PIN_INSTALLED_ARCHIVES, Boolean.toString(pinInstalledArchives.is()));
+			UserPreferences.put(PREDOWNLOAD_UPDATES, Boolean.toString(predownloadUpdates.is()));
+			UserPreferences.put(HIGHLIGHT_NEW_VERSIONS, Boolean.toString(highlightNewVersions.is()));
+			UserPreferences.put(RELEASE_COLUMNS, Boolean.toString(releaseColumns.is()));
 			logger.setLogLevel(logger.rootLogger(), logLevels.selection().item().getOrThrow());
 			sdkManUi.zipExecutable = zipExecutable.get();
 			sdkManUi.unzipExecutable = unzipExecutable.get();
@@ -655,6 +1472,22 @@ public final class SDKBoyModel {
 		public void revert() {
 			confirmActions.set(getConfirmActionsPreference());
 			confirmExit.set(getConfirmExitPreference());
+			stallThreshold.set(getStallThresholdPreference());
+			serveQueries.set(getServeQueriesPreference());
+			bandwidthLimit.set(getIntegerPreference(BANDWIDTH_LIMIT, 0));
+			downloadBandwidthLimit.set(getIntegerPreference(DOWNLOAD_BANDWIDTH_LIMIT, 0));
+			deferLargeDownloads.set(getDeferLargeDownloadsPreference());
+			offPeakStart.set(getIntegerPreference(OFF_PEAK_START, DEFAULT_OFF_PEAK_START));
+			offPeakEnd.set(getIntegerPreference(OFF_PEAK_END, DEFAULT_OFF_PEAK_END));
+			largeDownloadThreshold.set(getIntegerPreference(LARGE_DOWNLOAD_THRESHOLD, DEFAULT_LARGE_DOWNLOAD_THRESHOLD));
+			mirrors.set(UserPreferences.get(MIRRORS, ""));
+			hedgeThreshold.set(getIntegerPreference(HEDGE_THRESHOLD, DEFAULT_HEDGE_THRESHOLD));
+			sharedCache.set(UserPreferences.get(SHARED_CACHE, ""));
+			archiveCapacity.set(getIntegerPreference(ARCHIVE_CAPACITY, 0));
+			pinInstalledArchives.set(getPinInstalledArchivesPreference());
+			predownloadUpdates.set(getPredownloadUpdatesPreference());
+			highlightNewVersions.set(getHighlightNewVersionsPreference());
+			releaseColumns.set(getReleaseColumnsPreference());
 			logLevels.selection().item().set((Level) logger.getLogLevel(logger.rootLogger()));
 			zipExecutable.set(sdkManUi.zipExecutable);
 			unzipExecutable.set(sdkManUi.unzipExecutable);
@@ -669,6 +1502,38 @@ public final class SDKBoyModel {
 		private static boolean getConfirmExitPreference() {
 			return parseBoolean(UserPreferences.get(CONFIRM_EXIT, TRUE.toString()));
 		}
+
+		private static int getStallThresholdPreference() {
+			return Integer.parseInt(UserPreferences.get(STALL_THRESHOLD, Integer.toString(DEFAULT_STALL_THRESHOLD)));
+		}
+
+		private static boolean getServeQueriesPreference() {
+			return parseBoolean(UserPreferences.get(SERVE_QUERIES, FALSE.toString()));
+		}
+
+		private static boolean getDeferLargeDownloadsPreference() {
+			return parseBoolean(UserPreferences.get(DEFER_LARGE_DOWNLOADS, FALSE.toString()));
+		}
+
+		private static boolean getPinInstalledArchivesPreference() {
+			return parseBoolean(UserPreferences.get(PIN_INSTALLED_ARCHIVES, TRUE.toString()));
+		}
+
+		private static boolean getPredownloadUpdatesPreference() {
+			return parseBoolean(UserPreferences.get(PREDOWNLOAD_UPDATES, FALSE.toString()));
+		}
+
+		private static boolean getHighlightNewVersionsPreference() {
+			return parseBoolean(UserPreferences.get(HIGHLIGHT_NEW_VERSIONS, TRUE.toString()));
+		}
+
+		private static boolean getReleaseColumnsPreference() {
+			return parseBoolean(UserPreferences.get(RELEASE_COLUMNS, FALSE.toString()));
+		}
+
+		private static int getIntegerPreference(String key, int defaultValue) {
+			return Integer.parseInt(UserPreferences.get(key, Integer.toString(defaultValue)));
+		}
 	}
 }
 // end::sdkboy_model[]
\ No newline at end of file
@@ -0,0 +1,850 @@
+/*
+ * This file is part of SDKBOY.
+ *
+ * SDKBOY is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SDKBOY is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SDKBOY.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (c) 2026, Björn Darri Sigurðsson.
+ */
+package is.codion.sdkboy.model;
+
+import is.codion.common.model.CancelException;
+import is.codion.common.reactive.event.Event;
+import is.codion.common.reactive.observer.Observer;
+import is.codion.common.reactive.state.State;
+import is.codion.sdkboy.model.TaskScheduler.Priority;
+
+import io.github.jagodevreede.sdkman.api.OsHelper;
+import io.github.jagodevreede.sdkman.api.SdkManApi;
+import io.github.jagodevreede.sdkman.api.domain.Candidate;
+import io.github.jagodevreede.sdkman.api.domain.CandidateVersion;
+import io.github.jagodevreede.sdkman.api.files.FileUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static io.github.jagodevreede.sdkman.api.SdkManApi.DEFAULT_SDKMAN_HOME;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.util.stream.Collectors.toMap;
+
+/**
+ * The SDKMAN operations, instrumented with metrics and flight events,
+ * shared by the UI and the command line, without any Swing dependencies.
+ * <p>
+ * Safe for concurrent use, the catalogue queries are lock-free while installs, uninstalls and uses
+ * hold a lock striped by candidate, which also excludes other SDKBOY processes, via the lock file
+ * {@code SDKMAN_HOME/var/sdkboy.lock}. A download holds the lock striped by its archive instead,
+ * so versions of the same candidate download in parallel, striped separately from the candidate locks,
+ * so a download paused by the {@link TaskScheduler} never holds up interactive work.
+ * <p>
+ * The catalogue queries, uninstalls and uses run as {@link TaskScheduler.Priority#INTERACTIVE},
+ * the installs as {@link TaskScheduler.Priority#INSTALL} and the archive sweeps and pre-downloads
+ * as {@link TaskScheduler.Priority#BACKGROUND}, unless called from within a scheduled task.
+ */
+// tag::sdkboy_service[]
+public final class SDKBoyService {
+
+	private final SdkManApi sdkMan;
+	private final Metrics metrics;
+	private final Event<Manifest.Action> performed = Event.event();
+	private final ShellEnvironment environment;
+	private final StripedLocks locks;
+	private final StripedLocks downloadLocks;
+	private final TaskScheduler scheduler;
+	private final Bandwidth bandwidth;
+	private final Mirrors mirrors;
+	private final SharedCache sharedCache;
+	private final ArchiveStore archives;
+	private final DiskUsage diskUsage;
+	private final ReleaseFiles releaseFiles;
+	// Shared between the catalogue queries, so the rows and the search index do not hold copies
+	private final Map<String, Candidate> candidates = new ConcurrentHashMap<>();
+	private final Map<String, String> strings = new ConcurrentHashMap<>();
+
+	public SDKBoyService() {
+		this(new SdkManApi(DEFAULT_SDKMAN_HOME), new Metrics());
+	}
+
+	SDKBoyService(SdkManApi sdkMan, Metrics metrics) {
+		this.sdkMan = sdkMan;
+		this.metrics = metrics;
+		this.environment = new ShellEnvironment(home());
+		this.locks = new StripedLocks(home().resolve("var").resolve("sdkboy.lock"), metrics);
+		this.downloadLocks = new StripedLocks(home().resolve("var").resolve("sdkboy-downloads.lock"), metrics);
+		this.scheduler = new TaskScheduler(metrics);
+		this.bandwidth = new Bandwidth(metrics);
+		this.sharedCache = new SharedCache(OsHelper.getPlatformName(), metrics);
+		this.archives = new ArchiveStore(home().resolve("archives"), home().resolve("var").resolve(ArchiveStore.FILE_NAME), metrics);
+		this.diskUsage = new DiskUsage(home().resolve("var").resolve(DiskUsage.FILE_NAME), metrics);
+		this.releaseFiles = new ReleaseFiles(home().resolve("var").resolve(ReleaseFiles.FILE_NAME), metrics);
+		this.mirrors = new Mirrors(SdkManApi.BASE_URL, home().resolve("var").resolve(Mirrors.FILE_NAME), metrics);
+		this.performed.addListener(this::writeShellEnvironment);
+	}
+
+	public Metrics metrics() {
+		return metrics;
+	}
+
+	/**
+	 * @return the scheduler running the service operations
+	 */
+	public TaskScheduler scheduler() {
+		return scheduler;
+	}
+
+	/**
+	 * @return the download bandwidth limits
+	 */
+	public Bandwidth bandwidth() {
+		return bandwidth;
+	}
+
+	/**
+	 * @return the download sources
+	 */
+	public Mirrors mirrors() {
+		return mirrors;
+	}
+
+	/**
+	 * @return the archive cache shared between users and machines
+	 */
+	public SharedCache sharedCache() {
+		return sharedCache;
+	}
+
+	/**
+	 * @return the kept archives
+	 */
+	public ArchiveStore archives() {
+		return archives;
+	}
+
+	/**
+	 * @return notified each time a version has been installed, uninstalled or used, on the thread that performed it
+	 */
+	public Observer<Manifest.Action> performed() {
+		return performed.observer();
+	}
+
+	/**
+	 * @return the SDKMAN home directory
+	 */
+	public Path home() {
+		return Path.of(sdkMan.getBaseFolder());
+	}
+
+	/**
+	 * Writes the shell environment snippet, unless unchanged, which also
+	 * happens each time a version is installed, uninstalled or used.
+	 * @return the shell environment snippet file
+	 */
+	public Path shellEnvironment() {
+		environment.write();
+
+		return environment.file();
+	}
+
+	/**
+	 * @return all candidates
+	 */
+	public List<Candidate> candidates() {
+		return scheduler.run(Priority.INTERACTIVE, this::fetchCandidates);
+	}
+
+	/**
+	 * @return the ids of the candidates with at least one version installed, without any network access
+	 */
+	public List<String> installedCandidates() {
+		File[] directories = Path.of(sdkMan.getBaseFolder(), "candidates").toFile().listFiles(File::isDirectory);
+
+		return directories == null ? List.of() : Stream.of(directories)
+						.map(File::getName)
+						.filter(candidate -> installed(candidate) > 0)
+						.sorted()
+						.toList();
+	}
+
+	/**
+	 * @param candidate the candidate id
+	 * @return the number of installed versions
+	 */
+	public int installed(String candidate) {
+		return installedVersions(candidate).size();
+	}
+
+	/**
+	 * @param candidate the candidate id
+	 * @return the identifiers of the installed versions, sorted, without any network access
+	 */
+	public List<String> installedVersions(String candidate) {
+		return sdkMan.getLocalInstalledVersions(candidate).stream()
+						.sorted()
+						.toList();
+	}
+
+	/**
+	 * @param candidate the candidate id
+	 * @return the disk usage of each installed version in bytes, by identifier, see {@link DiskUsage}
+	 */
+	public Map<String, Long> diskUsage(String candidate) {
+		Map<Path, String> identifiers = installedVersions(candidate).stream()
+						.collect(toMap(identifier -> versionDirectory(candidate, identifier), identifier -> identifier));
+		Map<String, Long> sizes = new HashMap<>();
+		diskUsage.sizes(identifiers.keySet()).forEach((directory, bytes) -> sizes.put(identifiers.get(directory), bytes));
+
+		return sizes;
+	}
+
+	/**
+	 * Computes the disk usage of the installed versions of all the given candidates in parallel.
+	 * @param candidates the candidate ids
+	 * @return the total disk usage of the installed versions in bytes, by candidate, excluding ones with none installed
+	 */
+	public Map<String, Long> diskUsage(Collection<String> candidates) {
+		Map<Path, String> installed = new HashMap<>();
+		candidates.forEach(candidate -> installedVersions(candidate)
+						.forEach(identifier -> installed.put(versionDirectory(candidate, identifier), candidate)));
+		Map<String, Long> sizes = new HashMap<>();
+		diskUsage.sizes(installed.keySet()).forEach((directory, bytes) -> sizes.merge(installed.get(directory), bytes, Long::sum));
+
+		return sizes;
+	}
+
+	/**
+	 * @param candidate the candidate id
+	 * @return the release metadata of each installed version, by identifier, see {@link ReleaseFiles}
+	 */
+	public Map<String, ReleaseFiles.Metadata> releases(String candidate) {
+		return releases(List.of(candidate)).getOrDefault(candidate, Map.of());
+	}
+
+	/**
+	 * Probes the release metadata of the installed versions of all the given candidates in parallel.
+	 * @param candidates the candidate ids
+	 * @return the release metadata of the installed versions by identifier, by candidate,
+	 * excluding versions without release metadata
+	 */
+	public Map<String, Map<String, ReleaseFiles.Metadata>> releases(Collection<String> candidates) {
+		Map<Path, String> installed = new HashMap<>();
+		candidates.forEach(candidate -> installedVersions(candidate)
+						.forEach(identifier -> installed.put(versionDirectory(candidate, identifier), candidate)));
+		Map<String, Map<String, ReleaseFiles.Metadata>> releases = new HashMap<>();
+		releaseFiles.metadata(installed.keySet()).forEach((directory, metadata) -> releases
+						.computeIfAbsent(installed.get(directory), _ -> new HashMap<>())
+						.put(directory.getFileName().toString(), metadata));
+
+		return releases;
+	}
+
+	/**
+	 * @param candidate the candidate id
+	 * @return the available versions
+	 */
+	public List<CandidateVersion> versions(String candidate) {
+		return scheduler.run(Priority.INTERACTIVE, () -> fetchVersions(candidate));
+	}
+
+	/**
+	 * Fetches the versions of all candidates in parallel, each on its own virtual thread,
+	 * as {@link Priority#BACKGROUND}, for prefetching, such as for the {@link SearchIndex}.
+	 * @return the versions of each candidate
+	 */
+	public Map<Candidate, List<CandidateVersion>> catalogue() {
+		Map<Candidate, List<CandidateVersion>> catalogue = new ConcurrentHashMap<>();
+		List<Future<?>> fetches;
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			fetches = scheduler.run(Priority.BACKGROUND, this::fetchCandidates).stream()
+							.<Future<?>>map(candidate -> executor.submit(() -> catalogue.put(candidate,
+											scheduler.run(Priority.BACKGROUND, () -> fetchVersions(candidate.id())))))
+							.toList();
+		}
+		throwFailures(fetches);
+
+		return catalogue;
+	}
+
+	/**
+	 * @param candidate the candidate id
+	 * @param identifier the version identifier
+	 * @return the version, an empty Optional if none is found
+	 */
+	public Optional<CandidateVersion> version(String candidate, String identifier) {
+		return versions(candidate).stream()
+						.filter(version -> version.identifier().equals(identifier))
+						.findFirst();
+	}
+
+	/**
+	 * @param candidate the candidate id
+	 * @return the identifier of the version in use, an empty Optional if none
+	 */
+	public Optional<String> current(String candidate) {
+		try {
+			return Optional.ofNullable(sdkMan.resolveCurrentVersion(candidate));
+		}
+		catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * @param candidate the candidate id
+	 * @param identifier the version identifier
+	 * @return true if the given version is installed
+	 */
+	public boolean isInstalled(String candidate, String identifier) {
+		return Files.isDirectory(versionDirectory(candidate, identifier));
+	}
+
+	/**
+	 * @param candidate the candidate id
+	 * @param identifier the version identifier
+	 * @return true if the archive of the given version has been downloaded
+	 */
+	public boolean isDownloaded(String candidate, String identifier) {
+		return archive(candidate, identifier).exists();
+	}
+
+	/**
+	 * Downloads, unless already downloaded or available in the shared cache, and extracts the given version.
+	 * A large download may be deferred to the off-peak window, see {@link Bandwidth#offPeak(Bandwidth.OffPeak)}.
+	 * @param candidate the candidate id
+	 * @param identifier the version identifier
+	 * @param progress receives the progress
+	 * @param downloading set while downloading or deferred, the download can be cancelled
+	 * @param cancel cancels the download
+	 * @throws CancelException in case the download was cancelled
+	 */
+	public void install(String candidate, String identifier, Consumer<InstallProgress> progress,
+											State downloading, Observer<?> cancel) {
+		File archive = archive(candidate, identifier);
+		// Deferred before scheduling, so a deferred download does not hold up other installs
+		if (!archive.exists() && !sharedCache.contains(archive.toPath()) &&
+						bandwidth.defer(() -> Download.contentLength(mirrors.sources().getFirst() + downloadPath(candidate, identifier)))) {
+			downloading.set(true);
+			try {
+				bandwidth.awaitOffPeak(progress, cancel);
+			}
+			finally {
+				downloading.set(false);
+			}
+		}
+		scheduler.run(Priority.INSTALL, () -> {
+			downloadLocks.run(archive.getName(), () -> {
+				// Checked while holding the lock, in case another thread or process just downloaded it
+				if (!archive.exists()) {
+					fetch(candidate, identifier, progress, downloading, cancel);
+				}
+			});
+			locks.run(candidate, () -> extract(candidate, identifier, progress));
+			// Unless deleted after extracting, when downloads are not kept available
+			if (archive.exists()) {
+				archives.accessed(archive.toPath());
+			}
+		});
+		progress.accept(InstallProgress.indeterminate("Done"));
+		performed.accept(new Manifest.Action(Manifest.Action.Type.INSTALL, candidate, identifier));
+		if (archives.capacity() > 0) {
+			scheduler.submit(Priority.BACKGROUND, this::sweepArchives)
+							.whenComplete((_, exception) -> {
+								if (exception != null) {
+									metrics.failure("Evicting archives", exception);
+								}
+							});
+		}
+	}
+
+	/**
+	 * Evicts the least recently used archives, until within the capacity, see {@link ArchiveStore},
+	 * which also happens in the background after each install.
+	 * @return the result
+	 */
+	public ArchiveStore.Sweep sweepArchives() {
+		return scheduler.run(Priority.BACKGROUND, () -> archives.sweep(this::isInstalled, this::evict));
+	}
+
+	/**
+	 * @param candidate the candidate id
+	 * @param identifier the version identifier
+	 */
+	public void uninstall(String candidate, String identifier) {
+		scheduler.run(Priority.INTERACTIVE, () -> locks.run(candidate, () -> sdkMan.uninstall(candidate, identifier)));
+		performed.accept(new Manifest.Action(Manifest.Action.Type.UNINSTALL, candidate, identifier));
+	}
+
+	/**
+	 * Sets the given version as the global one
+	 * @param candidate the candidate id
+	 * @param identifier the version identifier
+	 */
+	public void use(String candidate, String identifier) {
+		scheduler.run(Priority.INTERACTIVE, () -> locks.run(candidate, () -> changeGlobal(candidate, identifier)));
+		performed.accept(new Manifest.Action(Manifest.Action.Type.USE, candidate, identifier));
+	}
+
+	/**
+	 * Diffs the given manifest against the local installation state, without any network access.
+	 * Installed versions not listed in the manifest are uninstalled, except the used one, unless
+	 * the manifest specifies another version to use, so a candidate is never left without a used version.
+	 * @param manifest the manifest
+	 * @return the actions required to bring the local installation in line with the manifest
+	 */
+	public Manifest.Plan plan(Manifest manifest) {
+		List<Manifest.Action> installs = new ArrayList<>();
+		List<Manifest.Action> uses = new ArrayList<>();
+		List<Manifest.Action> uninstalls = new ArrayList<>();
+		for (Manifest.Entry entry : manifest.entries()) {
+			String candidate = entry.candidate();
+			entry.identifiers().stream()
+							.filter(identifier -> !isInstalled(candidate, identifier))
+							.map(identifier -> new Manifest.Action(Manifest.Action.Type.INSTALL, candidate, identifier))
+							.forEach(installs::add);
+			String current = current(candidate).orElse(null);
+			if (entry.use() != null && !entry.use().equals(current)) {
+				uses.add(new Manifest.Action(Manifest.Action.Type.USE, candidate, entry.use()));
+			}
+			String used = entry.use() == null ? current : entry.use();
+			installedVersions(candidate).stream()
+							.filter(identifier -> !entry.identifiers().contains(identifier))
+							.filter(identifier -> !identifier.equals(used))
+							.map(identifier -> new Manifest.Action(Manifest.Action.Type.UNINSTALL, candidate, identifier))
+							.forEach(uninstalls::add);
+		}
+
+		return new Manifest.Plan(List.copyOf(installs), List.copyOf(uses), List.copyOf(uninstalls));
+	}
+
+	/**
+	 * Performs the given plan, running the installs in parallel, each on its own virtual thread,
+	 * followed by the uses and uninstalls, which are only performed if all the installs succeed.
+	 * Since a plan only contains what is missing, reconciling a manifest again is a no-op.
+	 * @param plan the plan to perform
+	 * @param progress receives the progress of each action, called from multiple threads
+	 * @param cancel cancels the downloads
+	 * @throws CancelException in case a download was cancelled
+	 */
+	public void reconcile(Manifest.Plan plan, BiConsumer<Manifest.Action, InstallProgress> progress, Observer<?> cancel) {
+		List<Future<?>> installs;
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			installs = plan.installs().stream()
+							.<Future<?>>map(action -> executor.submit(() -> install(action.candidate(), action.identifier(),
+											installProgress -> progress.accept(action, installProgress), State.state(), cancel)))
+							.toList();
+		}
+		throwFailures(installs);
+		for (Manifest.Action action : plan.uses()) {
+			progress.accept(action, InstallProgress.indeterminate("Using"));
+			use(action.candidate(), action.identifier());
+			progress.accept(action, InstallProgress.indeterminate("Done"));
+		}
+		for (Manifest.Action action : plan.uninstalls()) {
+			progress.accept(action, InstallProgress.indeterminate("Uninstalling"));
+			uninstall(action.candidate(), action.identifier());
+			progress.accept(action, InstallProgress.indeterminate("Done"));
+		}
+	}
+
+	/**
+	 * Plans the uninstall of superseded versions, keeping the latest patch releases of each vendor and
+	 * major version, see {@link Retention}, never including the used ones.
+	 * @param candidates the candidate ids
+	 * @param keep the number of patch releases to keep, of each vendor and major version
+	 * @return a plan containing only uninstalls
+	 * @throws IllegalArgumentException in case {@code keep} is less than one
+	 */
+	public Manifest.Plan prunePlan(Collection<String> candidates, int keep) {
+		List<Manifest.Action> uninstalls = new ArrayList<>();
+		for (String candidate : candidates) {
+			List<String> installed = installedVersions(candidate);
+			if (installed.size() > keep) {
+				String used = current(candidate).orElse(null);
+				Retention.superseded(installed, versions(candidate), keep).stream()
+								.filter(identifier -> !identifier.equals(used))
+								.map(identifier -> new Manifest.Action(Manifest.Action.Type.UNINSTALL, candidate, identifier))
+								.forEach(uninstalls::add);
+			}
+		}
+
+		return new Manifest.Plan(List.of(), List.of(), List.copyOf(uninstalls));
+	}
+
+	/**
+	 * Performs the uninstalls of the given plan in parallel, each on its own virtual thread.
+	 * Each version directory is renamed out of the way under the candidate lock, which is
+	 * instant, and deleted afterwards, outside of the lock. Versions used in the meantime are skipped.
+	 * @param plan the plan, see {@link #prunePlan(Collection, int)}
+	 * @param progress receives the progress of each uninstall, called from multiple threads
+	 */
+	public void prune(Manifest.Plan plan, BiConsumer<Manifest.Action, InstallProgress> progress) {
+		List<Future<?>> uninstalls;
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			uninstalls = plan.uninstalls().stream()
+							.<Future<?>>map(action -> executor.submit(() -> prune(action, progress)))
+							.toList();
+		}
+		throwFailures(uninstalls);
+	}
+
+	/**
+	 * Downloads, without installing, the latest patch release of the used version of each installed candidate,
+	 * of the same vendor and major version, see {@link Retention}, so upgrading is only a local extract.
+	 * Runs as {@link Priority#BACKGROUND}, subject to the bandwidth limits, skipping downloads deferred
+	 * to the off-peak window, see {@link Bandwidth#offPeak(Bandwidth.OffPeak)}, until called again.
+	 * @param cancel cancels the downloads
+	 * @return the versions downloaded, as install actions
+	 * @throws CancelException in case a download was cancelled
+	 */
+	public List<Manifest.Action> predownload(Observer<?> cancel) {
+		List<Manifest.Action> downloaded = new ArrayList<>();
+		for (String candidate : installedCandidates()) {
+			Optional<String> update = current(candidate).flatMap(used ->
+							scheduler.run(Priority.BACKGROUND, () -> Retention.patchUpdate(used, versions(candidate))));
+			if (update.isPresent() && predownload(candidate, update.get(), cancel)) {
+				downloaded.add(new Manifest.Action(Manifest.Action.Type.INSTALL, candidate, update.get()));
+			}
+		}
+
+		return downloaded;
+	}
+
+	/**
+	 * @return true if the given version was downloaded
+	 */
+	private boolean predownload(String candidate, String identifier, Observer<?> cancel) {
+		File archive = archive(candidate, identifier);
+		if (isInstalled(candidate, identifier) || archive.exists() || (!sharedCache.contains(archive.toPath()) &&
+						bandwidth.defer(() -> Download.contentLength(mirrors.sources().getFirst() + downloadPath(candidate, identifier))))) {
+			return false;
+		}
+		scheduler.run(Priority.BACKGROUND, () -> downloadLocks.run(archive.getName(), () -> {
+			if (!archive.exists()) {
+				fetch(candidate, identifier, _ -> {}, State.state(), cancel);
+			}
+		}));
+		archives.accessed(archive.toPath());
+
+		return true;
+	}
+
+	private void prune(Manifest.Action action, BiConsumer<Manifest.Action, InstallProgress> progress) {
+		progress.accept(action, InstallProgress.indeterminate("Uninstalling"));
+		Optional<Path> removed = scheduler.run(Priority.INTERACTIVE, () ->
+						locks.run(action.candidate(), () -> moveAside(action.candidate(), action.identifier())));
+		if (removed.isPresent()) {
+			performed.accept(action);
+			progress.accept(action, InstallProgress.indeterminate("Deleting"));
+			try {
+				if (Files.exists(removed.get())) {
+					FileUtil.deleteRecursively(removed.get().toFile());
+				}
+			}
+			catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		progress.accept(action, InstallProgress.indeterminate("Done"));
+	}
+
+	/**
+	 * Moves the given version out of the candidate directory, into {@code SDKMAN_HOME/tmp}.
+	 * @return the directory to delete, an empty Optional if the version is not installed or is used
+	 */
+	private Optional<Path> moveAside(String candidate, String identifier) {
+		Path directory = versionDirectory(candidate, identifier);
+		if (!Files.isDirectory(directory) || current(candidate).filter(identifier::equals).isPresent()) {
+			return Optional.empty();
+		}
+		try {
+			Path moved = Files.createDirectories(home().resolve("tmp"))
+							.resolve("sdkboy-prune-" + candidate + "-" + identifier + "-" + System.nanoTime());
+			try {
+				return Optional.of(Files.move(directory, moved, ATOMIC_MOVE));
+			}
+			catch (AtomicMoveNotSupportedException e) {
+				// A different file store, uninstall in place, leaving nothing to delete
+				sdkMan.uninstall(candidate, identifier);
+
+				return Optional.of(directory);
+			}
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Writes the shell environment snippet after an operation has completed, without failing
+	 * the operation in case the snippet can not be written, it is written again on the next one.
+	 */
+	private void writeShellEnvironment() {
+		try {
+			environment.write();
+		}
+		catch (RuntimeException e) {
+			metrics.failure("Writing the shell environment snippet", e);
+		}
+	}
+
+	private List<Candidate> fetchCandidates() {
+		try {
+			FlightEvents.CatalogueFetch event = new FlightEvents.CatalogueFetch();
+			event.begin();
+			HttpCached<List<Candidate>> candidates = httpCached("/candidates/list", () -> sdkMan.getCandidates().get());
+			event.candidates = candidates.result().size();
+			event.cacheHit = candidates.hit();
+			event.commit();
+
+			return candidates.result().stream()
+							.map(this::share)
+							.toList();
+		}
+		catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private List<CandidateVersion> fetchVersions(String candidate) {
+		try {
+			FlightEvents.VersionListParse event = new FlightEvents.VersionListParse();
+			event.candidate = candidate;
+			event.begin();
+			HttpCached<List<CandidateVersion>> versions = httpCached("/candidates/" + candidate + "/" + OsHelper.getPlatformName() + "/versions/list?installed=",
+							() -> sdkMan.getVersions(candidate));
+			event.versions = versions.result().size();
+			event.cacheHit = versions.hit();
+			event.commit();
+
+			return versions.result().stream()
+							.map(this::share)
+							.toList();
+		}
+		catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * @return the candidate instance already fetched, unless it has changed since
+	 */
+	private Candidate share(Candidate candidate) {
+		return candidates.merge(candidate.id(), candidate, (previous, fetched) -> previous.equals(fetched) ? previous : fetched);
+	}
+
+	/**
+	 * @return the version, with the vendor and dist strings shared between versions
+	 * and the identifier sharing the version string, when equal
+	 */
+	private CandidateVersion share(CandidateVersion version) {
+		return new CandidateVersion(share(version.vendor()), version.version(), share(version.dist()),
+						version.version().equals(version.identifier()) ? version.version() : version.identifier(),
+						version.installed(), version.available());
+	}
+
+	private String share(String string) {
+		return string == null ? null : strings.computeIfAbsent(string, _ -> string);
+	}
+
+	/**
+	 * @param archive the archive, named {@code <candidate>-<identifier>.zip}
+	 * @return true if the archive belongs to an installed version
+	 */
+	private boolean isInstalled(Path archive) {
+		String name = archiveName(archive);
+		int separator = name.indexOf('-');
+
+		return separator > 0 && isInstalled(name.substring(0, separator), name.substring(separator + 1));
+	}
+
+	/**
+	 * Deletes the given archive, unless being downloaded or extracted
+	 */
+	private boolean evict(Path archive) {
+		String name = archiveName(archive);
+		int separator = name.indexOf('-');
+		String candidate = separator > 0 ? name.substring(0, separator) : name;
+
+		return downloadLocks.run(archive.getFileName().toString(), () ->
+						locks.run(candidate, () -> archive.toFile().delete()));
+	}
+
+	private void extract(String candidate, String identifier, Consumer<InstallProgress> progress) {
+		FlightEvents.Extraction event = new FlightEvents.Extraction();
+		event.candidate = candidate;
+		event.identifier = identifier;
+		event.begin();
+		Extraction.Result result = new Extraction(candidate, identifier, archive(candidate, identifier).toPath(),
+						versionDirectory(candidate, identifier), Path.of(sdkMan.getBaseFolder(), "tmp"))
+						.extract(progress);
+		event.entries = result.entries();
+		event.bytes = result.bytes();
+		event.commit();
+		metrics.rate(Metrics.EXTRACTION_THROUGHPUT, Metrics.FILES_PER_SECOND, result.entries(), result.nanos());
+	}
+
+	private void changeGlobal(String candidate, String identifier) {
+		FlightEvents.ChangeGlobal event = new FlightEvents.ChangeGlobal();
+		event.candidate = candidate;
+		event.identifier = identifier;
+		event.begin();
+		long start = System.nanoTime();
+		try {
+			sdkMan.changeGlobal(candidate, identifier);
+		}
+		catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+		finally {
+			metrics.histogram(Metrics.USE, Metrics.MICROSECONDS).record((System.nanoTime() - start) / 1_000);
+			event.commit();
+		}
+	}
+
+	private void fetch(String candidate, String identifier, Consumer<InstallProgress> progress,
+										 State downloading, Observer<?> cancel) {
+		// Set while waiting for another machine to download the same archive, so it can be cancelled
+		downloading.set(true);
+		try {
+			sharedCache.fetch(archive(candidate, identifier).toPath(),
+							() -> download(candidate, identifier, progress, downloading, cancel), progress, cancel);
+		}
+		finally {
+			downloading.set(false);
+		}
+	}
+
+	private void download(String candidate, String identifier, Consumer<InstallProgress> progress,
+												State downloading, Observer<?> cancel) {
+		String archiveName = candidate + "-" + identifier;
+		Download download = new Download(downloadPath(candidate, identifier), mirrors,
+						Path.of(sdkMan.getBaseFolder(), "tmp", archiveName + ".bin"),
+						archive(candidate, identifier).toPath(), archiveName, bandwidth.throttle(), metrics);
+		Runnable cancelTask = download::cancel;
+		cancel.addListener(cancelTask);
+		FlightEvents.Download event = new FlightEvents.Download();
+		event.candidate = candidate;
+		event.identifier = identifier;
+		event.begin();
+		long start = System.nanoTime();
+		downloading.set(true);
+		try {
+			event.bytes = download.download(progress);
+		}
+		catch (CancelException e) {
+			event.cancelled = true;
+			throw e;
+		}
+		finally {
+			downloading.set(false);
+			event.url = download.url();
+			// Prevent a memory leak, the cancel Observer
+			// may outlive this download
+			cancel.removeListener(cancelTask);
+			event.commit();
+		}
+		metrics.rate(Metrics.DOWNLOAD_THROUGHPUT, Metrics.BYTES_PER_SECOND, event.bytes, System.nanoTime() - start);
+	}
+
+	/**
+	 * Throws the first failure, if any, with the rest added as suppressed,
+	 * a cancellation taking precedence, since it explains the other failures.
+	 */
+	private static void throwFailures(List<Future<?>> futures) {
+		List<RuntimeException> failures = new ArrayList<>();
+		for (Future<?> future : futures) {
+			try {
+				future.get();
+			}
+			catch (ExecutionException e) {
+				failures.add(e.getCause() instanceof RuntimeException runtime ? runtime : new RuntimeException(e.getCause()));
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new CancelException();
+			}
+		}
+		if (!failures.isEmpty()) {
+			RuntimeException failure = failures.stream()
+							.filter(CancelException.class::isInstance)
+							.findFirst()
+							.orElse(failures.getFirst());
+			failures.stream()
+							.filter(other -> other != failure)
+							.forEach(failure::addSuppressed);
+			throw failure;
+		}
+	}
+
+	private static String archiveName(Path archive) {
+		String fileName = archive.getFileName().toString();
+
+		return fileName.substring(0, fileName.length() - ".zip".length());
+	}
+
+	private File archive(String candidate, String identifier) {
+		return new File(sdkMan.getBaseFolder(), "archives" + File.separator + candidate + "-" + identifier + ".zip");
+	}
+
+	private Path versionDirectory(String candidate, String identifier) {
+		return Path.of(sdkMan.getBaseFolder(), "candidates", candidate, identifier);
+	}
+
+	/**
+	 * Performs the given catalogue query, counting it as a http cache miss in case
+	 * the cache file of the query url did not exist or was written during the query.
+	 * @param path the query path, relative to {@link SdkManApi#BASE_URL}
+	 */
+	private <T> HttpCached<T> httpCached(String path, Callable<T> query) throws Exception {
+		File cacheFile = httpCacheFile(SdkManApi.BASE_URL + path);
+		long lastModified = cacheFile.lastModified();
+		T result = query.call();
+		boolean hit = lastModified != 0 && cacheFile.lastModified() == lastModified;
+		metrics.counter(hit ? Metrics.HTTP_CACHE_HIT : Metrics.HTTP_CACHE_MISS).increment();
+
+		return new HttpCached<>(result, hit);
+	}
+
+	/**
+	 * @return the file the SDKMAN api caches the response to the given url in, named after the url
+	 */
+	private File httpCacheFile(String url) {
+		return new File(sdkMan.getHttpCacheFolder(), url.replaceAll("[^a-zA-Z0-9]", "_"));
+	}
+
+	private static String downloadPath(String candidate, String identifier) {
+		return "/broker/download/" + candidate + "/" +
+						identifier + "/" + OsHelper.getPlatformName();
+	}
+
+	private record HttpCached<T>(T result, boolean hit) {}
+}
+// end::sdkboy_service[]
@@ -0,0 +1,483 @@
+/*
+ * This file is part of SDKBOY.
+ *
+ * SDKBOY is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SDKBOY is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SDKBOY.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (c) 2026, Björn Darri Sigurðsson.
+ */
+package is.codion.sdkboy.model;
+
+import is.codion.sdkboy.model.SDKBoyModel.VersionModel.VersionInfo;
+
+import io.github.jagodevreede.sdkman.api.domain.Candidate;
+import io.github.jagodevreede.sdkman.api.domain.CandidateVersion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * An immutable in-memory trigram index over the versions of all candidates, matching the candidate names and ids,
+ * and the version numbers, vendors and identifiers. Each search term of at least three characters narrows the
+ * versions down to the ones containing all its trigrams, by intersecting their sorted postings, along with all
+ * the versions of the candidates it matches. Shorter terms are matched against the remaining versions, or all
+ * of them, in case no term is long enough.
+ * <p>
+ * Each term scores 8 when it matches a whole field, such as an identifier, 4 when it starts a field, 2 when it
+ * starts a word and 1 when it is contained within one, with a version matching only when all the terms match.
+ * Versions with the same score are ordered by candidate name and then by version, the latest first.
+ * <p>
+ * Stored column by column, without the {@link CandidateVersion} instances, with the candidates stored once, as ranges
+ * of versions, the candidate names and ids indexed by candidate rather than by version, vendors shared between versions,
+ * identifiers sharing the version string when equal and the postings delta encoded as variable length integers.
+ */
+// tag::search_index[]
+public final class SearchIndex {
+
+	private static final int GRAM = 3;
+	private static final int MAXIMUM_SCORE = 8;
+	private static final int[] NONE = new int[0];
+
+	private final Candidate[] candidates;
+	private final String[] candidateNames;
+	private final String[] candidateIds;
+	// The first version of each candidate, followed by the number of versions
+	private final int[] offsets;
+	private final String[] versions;
+	private final String[] vendors;
+	private final String[] identifiers;
+	// The lower case fields being searched, sharing the original strings when already lower case
+	private final String[] versionTexts;
+	private final String[] vendorTexts;
+	private final String[] identifierTexts;
+	// The trigrams, sorted, and the ids of the versions containing each
+	private final long[] grams;
+	private final byte[][] postings;
+
+	private SearchIndex(Builder builder) {
+		this.candidates = builder.candidates.toArray(new Candidate[0]);
+		this.candidateNames = Arrays.stream(candidates)
+						.map(candidate -> lowerCase(candidate.name()))
+						.toArray(String[]::new);
+		this.candidateIds = Arrays.stream(candidates)
+						.map(candidate -> lowerCase(candidate.id()))
+						.toArray(String[]::new);
+		this.offsets = IntStream.concat(builder.offsets.stream().mapToInt(Integer::intValue), IntStream.of(builder.versions.size()))
+						.toArray();
+		this.versions = builder.versions.toArray(new String[0]);
+		this.vendors = builder.vendors.toArray(new String[0]);
+		this.identifiers = builder.identifiers.toArray(new String[0]);
+		this.versionTexts = builder.texts(versions);
+		this.vendorTexts = builder.texts(vendors);
+		this.identifierTexts = builder.texts(identifiers);
+		this.grams = builder.postings.keySet().stream()
+						.mapToLong(Long::longValue)
+						.sorted()
+						.toArray();
+		this.postings = Arrays.stream(grams)
+						.mapToObj(gram -> builder.postings.get(gram).encode())
+						.toArray(byte[][]::new);
+	}
+
+	/**
+	 * @param catalogue the versions of each candidate
+	 * @return a new index
+	 */
+	public static SearchIndex of(Map<Candidate, List<CandidateVersion>> catalogue) {
+		Builder builder = new Builder();
+		catalogue.keySet().stream()
+						.sorted(Comparator.comparing(candidate -> lowerCase(candidate.name())))
+						.forEach(candidate -> builder.add(candidate, catalogue.get(candidate)));
+
+		return new SearchIndex(builder);
+	}
+
+	/**
+	 * @return the number of versions indexed
+	 */
+	public int size() {
+		return versions.length;
+	}
+
+	/**
+	 * @param query the search terms, separated by whitespace, case-insensitive
+	 * @param limit the maximum number of matches to return
+	 * @return the versions matching all the terms, the highest score first, an empty list if the query contains no terms
+	 */
+	public List<Match> search(String query, int limit) {
+		String[] terms = terms(query);
+		if (terms.length == 0) {
+			return List.of();
+		}
+		int[] ids = ids(terms);
+		int count = ids == null ? versions.length : ids.length;
+		int[] scores = new int[count];
+		// The number of matches with each score, for selecting the top ones without sorting all of them
+		int[] histogram = new int[MAXIMUM_SCORE * terms.length + 1];
+		int candidate = -1;
+		int[] candidateScores = new int[terms.length];
+		for (int i = 0; i < count; i++) {
+			int id = ids == null ? i : ids[i];
+			if (candidate < 0 || offsets[candidate + 1] <= id) {
+				candidate = candidate(id);
+				for (int term = 0; term < terms.length; term++) {
+					candidateScores[term] = Math.max(score(candidateNames[candidate], terms[term]), score(candidateIds[candidate], terms[term]));
+				}
+			}
+			scores[i] = score(id, terms, candidateScores);
+			histogram[scores[i]]++;
+		}
+		int threshold = histogram.length - 1;
+		int above = 0;
+		while (threshold > 1 && above + histogram[threshold] < limit) {
+			above += histogram[threshold--];
+		}
+		// All the matches above the threshold score, along with the lowest ids of the ones at it
+		long[] ranked = new long[Math.min(limit, above + histogram[threshold])];
+		int selected = 0;
+		int atThreshold = ranked.length - above;
+		for (int i = 0; i < count && selected < ranked.length; i++) {
+			if (scores[i] > threshold || (scores[i] == threshold && atThreshold-- > 0)) {
+				int id = ids == null ? i : ids[i];
+				// The score in the high bits, with the lower ids ranking higher among equal scores
+				ranked[selected++] = (long) scores[i] << Integer.SIZE | (Integer.MAX_VALUE - id);
+			}
+		}
+		Arrays.sort(ranked);
+		List<Match> result = new ArrayList<>(ranked.length);
+		for (int i = ranked.length - 1; i >= 0; i--) {
+			int id = Integer.MAX_VALUE - (int) ranked[i];
+			result.add(new Match(candidates[candidate(id)], versions[id], vendors[id], identifiers[id], (int) (ranked[i] >>> Integer.SIZE)));
+		}
+
+		return result;
+	}
+
+	/**
+	 * @param candidate the candidate
+	 * @param version the version number
+	 * @param vendor the vendor, null if none
+	 * @param identifier the version identifier
+	 * @param score the score, see {@link SearchIndex}
+	 */
+	public record Match(Candidate candidate, String version, String vendor, String identifier, int score) {}
+
+	/**
+	 * @return the ids of the versions which may match all the terms, sorted, null if all may
+	 */
+	private int[] ids(String[] terms) {
+		List<int[]> lists = new ArrayList<>();
+		for (String term : terms) {
+			int[] ids = ids(term);
+			if (ids != null) {
+				if (ids.length == 0) {
+					return NONE;
+				}
+				lists.add(ids);
+			}
+		}
+		if (lists.isEmpty()) {
+			return null;
+		}
+		lists.sort(Comparator.comparingInt(ids -> ids.length));
+		int[] ids = lists.getFirst();
+		for (int i = 1; i < lists.size() && ids.length > 0; i++) {
+			ids = intersect(ids, lists.get(i));
+		}
+
+		return ids;
+	}
+
+	/**
+	 * @return the ids of the versions containing all the trigrams of the term, along with
+	 * the versions of the candidates matching it, sorted, null if the term is too short or all versions match
+	 */
+	private int[] ids(String term) {
+		if (term.length() < GRAM) {
+			return null;
+		}
+		int[] ids = null;
+		for (int i = 0; i <= term.length() - GRAM && (ids == null || ids.length > 0); i++) {
+			int index = Arrays.binarySearch(grams, gram(term, i));
+			int[] gramIds = index < 0 ? NONE : decode(postings[index]);
+			ids = ids == null ? gramIds : intersect(ids, gramIds);
+		}
+		boolean[] matching = new boolean[candidates.length];
+		for (int candidate = 0; candidate < candidates.length; candidate++) {
+			matching[candidate] = candidateNames[candidate].contains(term) || candidateIds[candidate].contains(term);
+		}
+		ids = union(ids, matching);
+
+		return ids.length == versions.length ? null : ids;
+	}
+
+	/**
+	 * @return the given ids along with the versions of the matching candidates, sorted
+	 */
+	private int[] union(int[] ids, boolean[] matching) {
+		int length = ids.length;
+		for (int candidate = 0; candidate < candidates.length; candidate++) {
+			if (matching[candidate]) {
+				length += offsets[candidate + 1] - offsets[candidate];
+			}
+		}
+		if (length == ids.length) {
+			return ids;
+		}
+		int[] result = new int[length];
+		int count = 0;
+		int i = 0;
+		for (int candidate = 0; candidate < candidates.length; candidate++) {
+			if (matching[candidate]) {
+				while (i < ids.length && ids[i] < offsets[candidate]) {
+					result[count++] = ids[i++];
+				}
+				for (int id = offsets[candidate]; id < offsets[candidate + 1]; id++) {
+					result[count++] = id;
+				}
+				while (i < ids.length && ids[i] < offsets[candidate + 1]) {
+					i++;
+				}
+			}
+		}
+		while (i < ids.length) {
+			result[count++] = ids[i++];
+		}
+
+		return Arrays.copyOf(result, count);
+	}
+
+	/**
+	 * @param candidateScores the score of each term within the candidate name or id
+	 */
+	private int score(int id, String[] terms, int[] candidateScores) {
+		int score = 0;
+		for (int term = 0; term < terms.length; term++) {
+			int termScore = Math.max(candidateScores[term], Math.max(score(versionTexts[id], terms[term]), score(vendorTexts[id], terms[term])));
+			// Most identifiers are the version itself, sharing the string
+			if (termScore < MAXIMUM_SCORE && identifierTexts[id] != versionTexts[id]) {
+				termScore = Math.max(termScore, score(identifierTexts[id], terms[term]));
+			}
+			if (termScore == 0) {
+				return 0;
+			}
+			score += termScore;
+		}
+
+		return score;
+	}
+
+	/**
+	 * @return the last candidate starting at or before the given version, which skips any candidates without versions
+	 */
+	private int candidate(int id) {
+		int low = 0;
+		int high = candidates.length - 1;
+		while (low < high) {
+			int middle = (low + high + 1) >>> 1;
+			if (offsets[middle] <= id) {
+				low = middle;
+			}
+			else {
+				high = middle - 1;
+			}
+		}
+
+		return low;
+	}
+
+	private static int score(String field, String term) {
+		if (field == null) {
+			return 0;
+		}
+		int score = 0;
+		int index = field.indexOf(term);
+		while (index >= 0 && score < MAXIMUM_SCORE) {
+			if (index == 0) {
+				score = field.length() == term.length() ? MAXIMUM_SCORE : 4;
+			}
+			else if (!Character.isLetterOrDigit(field.charAt(index - 1))) {
+				score = Math.max(score, 2);
+			}
+			else {
+				score = Math.max(score, 1);
+			}
+			index = field.indexOf(term, index + 1);
+		}
+
+		return score;
+	}
+
+	private static int[] intersect(int[] left, int[] right) {
+		int[] result = new int[Math.min(left.length, right.length)];
+		int count = 0;
+		int i = 0;
+		int j = 0;
+		while (i < left.length && j < right.length) {
+			if (left[i] < right[j]) {
+				i++;
+			}
+			else if (left[i] > right[j]) {
+				j++;
+			}
+			else {
+				result[count++] = left[i];
+				i++;
+				j++;
+			}
+		}
+
+		return Arrays.copyOf(result, count);
+	}
+
+	private static int[] decode(byte[] bytes) {
+		int count = 0;
+		for (byte value : bytes) {
+			if (value >= 0) {
+				count++;
+			}
+		}
+		int[] ids = new int[count];
+		int id = -1;
+		int delta = 0;
+		int shift = 0;
+		int index = 0;
+		for (byte value : bytes) {
+			delta |= (value & 0x7F) << shift;
+			if (value >= 0) {
+				id += delta;
+				ids[index++] = id;
+				delta = 0;
+				shift = 0;
+			}
+			else {
+				shift += 7;
+			}
+		}
+
+		return ids;
+	}
+
+	private static long gram(String text, int index) {
+		return (long) text.charAt(index) << 32 | (long) text.charAt(index + 1) << 16 | text.charAt(index + 2);
+	}
+
+	private static String[] terms(String query) {
+		return query == null ? new String[0] : Arrays.stream(lowerCase(query).split("\\s+"))
+						.filter(term -> !term.isEmpty())
+						.toArray(String[]::new);
+	}
+
+	private static String lowerCase(String string) {
+		return string == null ? null : string.toLowerCase(Locale.ROOT);
+	}
+
+	private static final class Builder {
+
+		private final List<Candidate> candidates = new ArrayList<>();
+		private final List<Integer> offsets = new ArrayList<>();
+		private final List<String> versions = new ArrayList<>();
+		private final List<String> vendors = new ArrayList<>();
+		private final List<String> identifiers = new ArrayList<>();
+		private final Map<String, String> shared = new HashMap<>();
+		private final Map<Long, Postings> postings = new HashMap<>();
+
+		private void add(Candidate candidate, List<CandidateVersion> candidateVersions) {
+			candidates.add(candidate);
+			offsets.add(versions.size());
+			candidateVersions.stream()
+							.sorted(Comparator.comparing((CandidateVersion version) -> VersionInfo.of(version.version())).reversed())
+							.forEach(this::add);
+		}
+
+		private void add(CandidateVersion version) {
+			int id = versions.size();
+			boolean versionIdentifier = version.identifier().equals(version.version());
+			versions.add(version.version());
+			vendors.add(share(version.vendor()));
+			identifiers.add(versionIdentifier ? version.version() : version.identifier());
+			index(id, lowerCase(version.version()));
+			index(id, lowerCase(version.vendor()));
+			if (!versionIdentifier) {
+				index(id, lowerCase(version.identifier()));
+			}
+		}
+
+		private void index(int id, String text) {
+			if (text != null) {
+				for (int i = 0; i <= text.length() - GRAM; i++) {
+					postings.computeIfAbsent(gram(text, i), _ -> new Postings()).add(id);
+				}
+			}
+		}
+
+		private String share(String string) {
+			return string == null ? null : shared.computeIfAbsent(string, _ -> string);
+		}
+
+		/**
+		 * @return the lower case strings, sharing the original ones when already lower case
+		 */
+		private String[] texts(String[] strings) {
+			Map<String, String> texts = new HashMap<>();
+
+			return Arrays.stream(strings)
+							.map(string -> string == null ? null : texts.computeIfAbsent(string, SearchIndex::lowerCase))
+							.toArray(String[]::new);
+		}
+	}
+
+	private static final class Postings {
+
+		private int[] ids = new int[4];
+		private int size;
+
+		private void add(int id) {
+			// The ids are added in order, so a version containing a trigram more than once is added only once
+			if (size == 0 || ids[size - 1] != id) {
+				if (size == ids.length) {
+					ids = Arrays.copyOf(ids, size * 2);
+				}
+				ids[size++] = id;
+			}
+		}
+
+		/**
+		 * @return the ids, each as the variable length delta from the previous one, seven bits per byte,
+		 * the high bit set on all but the last byte
+		 */
+		private byte[] encode() {
+			byte[] bytes = new byte[size * 5];
+			int length = 0;
+			int previous = -1;
+			for (int i = 0; i < size; i++) {
+				int delta = ids[i] - previous;
+				previous = ids[i];
+				while (delta >= 0x80) {
+					bytes[length++] = (byte) (delta & 0x7F | 0x80);
+					delta >>>= 7;
+				}
+				bytes[length++] = (byte) delta;
+			}
+
+			return Arrays.copyOf(bytes, length);
+		}
+	}
+}
+// end::search_index[]
@@ -0,0 +1,197 @@
+/*
+ * This file is part of SDKBOY.
+ *
+ * SDKBOY is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SDKBOY is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SDKBOY.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (c) 2026, Björn Darri Sigurðsson.
+ */
+package is.codion.sdkboy.model;
+
+import is.codion.common.model.CancelException;
+import is.codion.common.reactive.observer.Observer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * A read-through archive cache shared between users and machines, such as a directory on an NFS mount,
+ * checked before downloading. Archives are stored by platform, since the archive names do not include it.
+ * <p>
+ * A miss holds an advisory lock on {@code <platform>/<archive>.lock} while downloading, so that concurrent
+ * requests for the same archive, from any number of machines, result in a single download, with the others
+ * waiting for it. An archive is copied into the cache under a temporary name and renamed into place, so it
+ * is never seen partially written, and hard-linked into the local archives folder where possible, copied otherwise.
+ */
+// tag::shared_cache[]
+public final class SharedCache {
+
+	private static final long LOCK_POLL_MILLIS = 200;
+
+	private final String platform;
+	private final Metrics metrics;
+
+	private volatile Path directory;
+
+	SharedCache(String platform, Metrics metrics) {
+		this.platform = platform;
+		this.metrics = metrics;
+	}
+
+	/**
+	 * @param directory the shared cache directory, null to disable
+	 */
+	public void directory(Path directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * @return the shared cache directory, an empty Optional if disabled
+	 */
+	public Optional<Path> directory() {
+		return Optional.ofNullable(directory);
+	}
+
+	/**
+	 * @param archive the local archive
+	 * @return true if the shared cache contains the given archive
+	 */
+	boolean contains(Path archive) {
+		Path cache = directory;
+
+		return cache != null && Files.exists(shared(cache, archive));
+	}
+
+	/**
+	 * Provides the given archive from the shared cache, if available, otherwise downloads it and adds it to the cache.
+	 * @param archive the local archive, which must not exist
+	 * @param download downloads the local archive
+	 * @param progress receives the progress
+	 * @param cancel cancels waiting for another download of the same archive
+	 * @throws CancelException in case cancelled while waiting
+	 */
+	void fetch(Path archive, Runnable download, Consumer<InstallProgress> progress, Observer<?> cancel) {
+		Path cache = directory;
+		if (cache == null) {
+			download.run();
+			return;
+		}
+		Path shared = shared(cache, archive);
+		try {
+			// Populated atomically, so no lock is required for a hit
+			if (Files.exists(shared)) {
+				hit(shared, archive, progress);
+				return;
+			}
+			Files.createDirectories(shared.getParent());
+			try (FileChannel channel = FileChannel.open(shared.resolveSibling(shared.getFileName() + ".lock"), CREATE, WRITE);
+					 FileLock _ = lock(channel, progress, cancel)) {
+				// Checked again while holding the lock, in case another machine just downloaded it
+				if (Files.exists(shared)) {
+					hit(shared, archive, progress);
+					return;
+				}
+				metrics.counter(Metrics.SHARED_CACHE_MISS).increment();
+				download.run();
+				publish(archive, shared);
+			}
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private void hit(Path shared, Path archive, Consumer<InstallProgress> progress) throws IOException {
+		metrics.counter(Metrics.SHARED_CACHE_HIT).increment();
+		progress.accept(InstallProgress.indeterminate("Copying from shared cache"));
+		try {
+			Files.createLink(archive, shared);
+		}
+		catch (IOException | UnsupportedOperationException e) {
+			// Most likely a different file system
+			Path temporary = Files.createTempFile(archive.getParent(), archive.getFileName().toString(), ".tmp");
+			try {
+				Files.copy(shared, temporary, REPLACE_EXISTING);
+				Files.move(temporary, archive, ATOMIC_MOVE, REPLACE_EXISTING);
+			}
+			finally {
+				Files.deleteIfExists(temporary);
+			}
+		}
+	}
+
+	/**
+	 * Waits for the lock, checking for cancellation, since another machine may hold it for the duration of a download
+	 */
+	private static FileLock lock(FileChannel channel, Consumer<InstallProgress> progress, Observer<?> cancel) throws IOException {
+		CountDownLatch cancelled = new CountDownLatch(1);
+		Runnable cancelTask = cancelled::countDown;
+		cancel.addListener(cancelTask);
+		try {
+			FileLock lock = channel.tryLock();
+			if (lock == null) {
+				progress.accept(InstallProgress.indeterminate("Waiting for another download of the same archive"));
+			}
+			while (lock == null) {
+				if (cancelled.await(LOCK_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+					throw new CancelException();
+				}
+				lock = channel.tryLock();
+			}
+
+			return lock;
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new CancelException();
+		}
+		finally {
+			cancel.removeListener(cancelTask);
+		}
+	}
+
+	private void publish(Path archive, Path shared) {
+		try {
+			Path temporary = Files.createTempFile(shared.getParent(), shared.getFileName().toString(), ".tmp");
+			try {
+				Files.copy(archive, temporary, REPLACE_EXISTING);
+				Files.move(temporary, shared, ATOMIC_MOVE, REPLACE_EXISTING);
+			}
+			finally {
+				Files.deleteIfExists(temporary);
+			}
+		}
+		catch (IOException e) {
+			// Such as a read-only or full share, not worth failing the install over
+			metrics.failure("Publishing " + archive.getFileName() + " to the shared cache", e);
+		}
+	}
+
+	private Path shared(Path cache, Path archive) {
+		return cache.resolve(platform).resolve(archive.getFileName());
+	}
+}
+// end::shared_cache[]
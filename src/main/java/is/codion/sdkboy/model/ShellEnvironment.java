@@ -0,0 +1,115 @@
+/*
+ * This file is part of SDKBOY.
+ *
+ * SDKBOY is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SDKBOY is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SDKBOY.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (c) 2026, Björn Darri Sigurðsson.
+ */
+package is.codion.sdkboy.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * A precomputed shell snippet, exporting the {@code *_HOME} variable and prepending the bin directory
+ * to the PATH for each candidate with a used version, as {@code sdkman-init.sh} does, but without
+ * walking the candidate directories each time a shell starts. Written to a temporary file and moved
+ * into place atomically, so a shell never sources a partially written snippet.
+ */
+// tag::shell_environment[]
+final class ShellEnvironment {
+
+	static final String FILE_NAME = "sdkboy-env.sh";
+
+	private final Path home;
+	private final Path file;
+
+	ShellEnvironment(Path home) {
+		this.home = home;
+		this.file = home.resolve("var").resolve(FILE_NAME);
+	}
+
+	/**
+	 * @return the snippet file
+	 */
+	Path file() {
+		return file;
+	}
+
+	/**
+	 * Writes the snippet, unless unchanged
+	 * @return true if the snippet was written
+	 */
+	synchronized boolean write() {
+		String snippet = snippet();
+		try {
+			if (Files.exists(file) && Files.readString(file).equals(snippet)) {
+				return false;
+			}
+			Files.createDirectories(file.getParent());
+			Path temporary = Files.createTempFile(file.getParent(), FILE_NAME, ".tmp");
+			try {
+				Files.writeString(temporary, snippet);
+				Files.move(temporary, file, ATOMIC_MOVE, REPLACE_EXISTING);
+			}
+			finally {
+				Files.deleteIfExists(temporary);
+			}
+
+			return true;
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private String snippet() {
+		Path candidates = home.resolve("candidates");
+		StringBuilder builder = new StringBuilder()
+						.append("# Generated by SDKBOY, source this instead of sdkman-init.sh when the sdk command is not required\n")
+						.append("export SDKMAN_DIR=").append(quote(home)).append('\n')
+						.append("export SDKMAN_CANDIDATES_DIR=").append(quote(candidates)).append('\n');
+		File[] directories = candidates.toFile().listFiles(File::isDirectory);
+		if (directories != null) {
+			Stream.of(directories)
+							.map(File::getName)
+							.sorted()
+							.forEach(candidate -> append(builder, candidate, candidates.resolve(candidate).resolve("current")));
+		}
+
+		return builder.append("export PATH\n").toString();
+	}
+
+	private static void append(StringBuilder builder, String candidate, Path current) {
+		if (Files.isDirectory(current)) {
+			Path bin = current.resolve("bin");
+			String path = quote(Files.isDirectory(bin) ? bin : current);
+			builder.append("export ").append(candidate.toUpperCase(Locale.ROOT)).append("_HOME=").append(quote(current)).append('\n')
+							.append("case \":$PATH:\" in *:").append(path).append(":*) ;; *) PATH=").append(path).append(":\"$PATH\" ;; esac\n");
+		}
+	}
+
+	private static String quote(Path path) {
+		return "'" + path.toString().replace("'", "'\\''") + "'";
+	}
+}
+// end::shell_environment[]
@@ -0,0 +1,159 @@
+/*
+ * This file is part of SDKBOY.
+ *
+ * SDKBOY is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SDKBOY is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SDKBOY.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (c) 2026, Björn Darri Sigurðsson.
+ */
+package is.codion.sdkboy.model;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * A fixed number of locks, striped by key, each guarding both threads within this process and,
+ * by locking a single byte of a shared lock file, other processes, such as another SDKBOY instance
+ * or the SDKBOY command line. Tasks for keys on different stripes run in parallel.
+ * Locks must not be nested, since the file region of a stripe can only be locked once per process.
+ * The file regions are locked without being interruptible, since interrupting a thread within a channel
+ * operation closes the channel, releasing the file locks held by all threads.
+ */
+final class StripedLocks {
+
+	private static final int STRIPES = 32;
+	private static final long MINIMUM_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+	private static final long MAXIMUM_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+	private final Path file;
+	private final Metrics metrics;
+	private final ReentrantLock[] stripes = IntStream.range(0, STRIPES)
+					.mapToObj(_ -> new ReentrantLock())
+					.toArray(ReentrantLock[]::new);
+
+	private FileChannel channel;
+
+	StripedLocks(Path file, Metrics metrics) {
+		this.file = file;
+		this.metrics = metrics;
+	}
+
+	/**
+	 * @param key the key
+	 * @param task the task to run while holding the lock for the given key
+	 */
+	void run(String key, Runnable task) {
+		run(key, () -> {
+			task.run();
+			return null;
+		});
+	}
+
+	/**
+	 * @param key the key
+	 * @param task the task to run while holding the lock for the given key
+	 * @param <T> the result type
+	 * @return the task result
+	 */
+	<T> T run(String key, Supplier<T> task) {
+		int stripe = Math.floorMod(key.hashCode(), STRIPES);
+		ReentrantLock lock = stripes[stripe];
+		if (lock.isHeldByCurrentThread()) {
+			throw new IllegalStateException("Nested lock on stripe " + stripe + ", by key: " + key);
+		}
+		long start = System.nanoTime();
+		lock.lock();
+		try {
+			FileLock fileLock = lock(stripe);
+			try {
+				metrics.histogram(Metrics.LOCK_WAIT, Metrics.MICROSECONDS).record((System.nanoTime() - start) / 1_000);
+
+				return task.get();
+			}
+			finally {
+				release(fileLock);
+			}
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Locks the file region of the given stripe, polling rather than blocking, with the interrupt status
+	 * cleared while doing so and restored afterwards, so an interrupt does not close the channel.
+	 * The process holding the region, if any, is another instance, since the stripe is locked within this one.
+	 */
+	private FileLock lock(int stripe) throws IOException {
+		boolean interrupted = Thread.interrupted();
+		try {
+			long backoff = MINIMUM_BACKOFF_NANOS;
+			FileLock fileLock = channel().tryLock(stripe, 1, false);
+			while (fileLock == null) {
+				LockSupport.parkNanos(backoff);
+				interrupted |= Thread.interrupted();
+				backoff = Math.min(backoff * 2, MAXIMUM_BACKOFF_NANOS);
+				fileLock = channel().tryLock(stripe, 1, false);
+			}
+
+			return fileLock;
+		}
+		finally {
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Releases the file region, unless already released along with its channel, such as when closed by an
+	 * interrupt and reopened since, reporting a failure to release rather than failing the task, which has already run.
+	 */
+	private void release(FileLock fileLock) {
+		if (fileLock.isValid()) {
+			try {
+				fileLock.release();
+			}
+			catch (IOException e) {
+				metrics.failure("Releasing a lock file region", e);
+			}
+		}
+	}
+
+	/**
+	 * @return the channel, opened again in case it has been closed, such as by an interrupt
+	 */
+	private synchronized FileChannel channel() throws IOException {
+		if (channel == null || !channel.isOpen()) {
+			Files.createDirectories(file.getParent());
+			channel = FileChannel.open(file, CREATE, WRITE);
+		}
+
+		return channel;
+	}
+}
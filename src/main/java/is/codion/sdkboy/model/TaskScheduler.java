@@ -0,0 +1,230 @@
+/*
+ * This file is part of SDKBOY.
+ *
+ * SDKBOY is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SDKBOY is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SDKBOY.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (c) 2026, Björn Darri Sigurðsson.
+ */
+package is.codion.sdkboy.model;
+
+import is.codion.common.model.CancelException;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Schedules tasks by priority class, each class with its own concurrency limit, deferring
+ * background tasks while interactive ones are queued or running. A running background task
+ * pauses at each {@link #checkpoint()} while interactive work is pending, such as between
+ * the chunks of a download. Tasks scheduled from within a scheduled task run right away,
+ * with the priority of the enclosing task.
+ * <p>
+ * For each class the number of queued and running tasks are available as counters,
+ * {@code scheduler.<class>.queued} and {@code scheduler.<class>.running}, and the time
+ * spent queued as the histogram {@code scheduler.<class>.wait}.
+ */
+// tag::task_scheduler[]
+public final class TaskScheduler {
+
+	public enum Priority {
+
+		/**
+		 * Work the user is waiting for, such as refreshing versions or changing the used version
+		 */
+		INTERACTIVE(8),
+		/**
+		 * Installs initiated by the user
+		 */
+		INSTALL(3),
+		/**
+		 * Prefetching and cleanup, deferred while interactive work is pending
+		 */
+		BACKGROUND(2);
+
+		private final int limit;
+
+		Priority(int limit) {
+			this.limit = limit;
+		}
+
+		private String metric(String name) {
+			return "scheduler." + name().toLowerCase(Locale.ROOT) + "." + name;
+		}
+	}
+
+	private static final ScopedValue<Scheduled> SCHEDULED = ScopedValue.newInstance();
+
+	private final Metrics metrics;
+	private final Map<Priority, Semaphore> permits = new EnumMap<>(Priority.class);
+	private final AtomicInteger interactive = new AtomicInteger();
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition interactiveDone = lock.newCondition();
+
+	TaskScheduler(Metrics metrics) {
+		this.metrics = metrics;
+		for (Priority priority : Priority.values()) {
+			permits.put(priority, new Semaphore(priority.limit, true));
+		}
+	}
+
+	/**
+	 * Runs the given task on the calling thread, once a permit for the given priority is available
+	 * @param priority the priority
+	 * @param task the task
+	 * @param <T> the result type
+	 * @return the task result
+	 * @throws CancelException in case the calling thread is interrupted while waiting
+	 */
+	public <T> T run(Priority priority, Supplier<T> task) {
+		if (SCHEDULED.isBound()) {
+			return task.get();
+		}
+		Metrics.Counter queued = metrics.counter(priority.metric("queued"));
+		Metrics.Counter running = metrics.counter(priority.metric("running"));
+		Semaphore semaphore = permits.get(priority);
+		long start = System.nanoTime();
+		queued.increment();
+		if (priority == Priority.INTERACTIVE) {
+			interactive.incrementAndGet();
+		}
+		try {
+			if (priority == Priority.BACKGROUND) {
+				awaitInteractive();
+			}
+			semaphore.acquire();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			interactiveCompleted(priority);
+			throw new CancelException();
+		}
+		finally {
+			queued.add(-1);
+		}
+		metrics.histogram(priority.metric("wait"), Metrics.MICROSECONDS).record((System.nanoTime() - start) / 1_000);
+		running.increment();
+		try {
+			return ScopedValue.where(SCHEDULED, new Scheduled(this, priority)).call(task::get);
+		}
+		finally {
+			running.add(-1);
+			semaphore.release();
+			interactiveCompleted(priority);
+		}
+	}
+
+	/**
+	 * Runs the given task on the calling thread, once a permit for the given priority is available
+	 * @param priority the priority
+	 * @param task the task
+	 */
+	public void run(Priority priority, Runnable task) {
+		run(priority, () -> {
+			task.run();
+			return null;
+		});
+	}
+
+	/**
+	 * Runs the given task on a new virtual thread, once a permit for the given priority is available
+	 * @param priority the priority
+	 * @param task the task
+	 * @param <T> the result type
+	 * @return the task result
+	 */
+	public <T> CompletableFuture<T> submit(Priority priority, Supplier<T> task) {
+		CompletableFuture<T> future = new CompletableFuture<>();
+		Thread.ofVirtual()
+						.name("SDKBOY " + priority.name().toLowerCase(Locale.ROOT))
+						.start(() -> {
+							try {
+								future.complete(run(priority, task));
+							}
+							catch (Throwable e) {
+								future.completeExceptionally(e);
+							}
+						});
+
+		return future;
+	}
+
+	/**
+	 * Pauses the calling thread, in case it is running a background task,
+	 * until no interactive work is pending. Must not be called while holding
+	 * a lock interactive tasks may require.
+	 * @throws CancelException in case the calling thread is interrupted while paused
+	 */
+	public static void checkpoint() {
+		if (SCHEDULED.isBound()) {
+			Scheduled scheduled = SCHEDULED.get();
+			if (scheduled.priority() == Priority.BACKGROUND && scheduled.scheduler().interactive.get() > 0) {
+				try {
+					scheduled.scheduler().metrics.counter(Priority.BACKGROUND.metric("paused")).increment();
+					scheduled.scheduler().awaitInteractive();
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new CancelException();
+				}
+			}
+		}
+	}
+
+	/**
+	 * @param task the task
+	 * @return a task running the given one as part of the current scheduled task, if any, for running on another thread
+	 */
+	static Runnable inheriting(Runnable task) {
+		if (!SCHEDULED.isBound()) {
+			return task;
+		}
+		Scheduled scheduled = SCHEDULED.get();
+
+		return () -> ScopedValue.where(SCHEDULED, scheduled).run(task);
+	}
+
+	private void awaitInteractive() throws InterruptedException {
+		lock.lock();
+		try {
+			while (interactive.get() > 0) {
+				interactiveDone.await();
+			}
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	private void interactiveCompleted(Priority priority) {
+		if (priority == Priority.INTERACTIVE && interactive.decrementAndGet() == 0) {
+			lock.lock();
+			try {
+				interactiveDone.signalAll();
+			}
+			finally {
+				lock.unlock();
+			}
+		}
+	}
+
+	private record Scheduled(TaskScheduler scheduler, Priority priority) {}
+}
+// end::task_scheduler[]
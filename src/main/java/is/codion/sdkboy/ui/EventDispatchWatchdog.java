@@ -0,0 +1,204 @@
+/*
+ * This file is part of SDKBOY.
+ *
+ * SDKBOY is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SDKBOY is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SDKBOY.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (c) 2026, Björn Darri Sigurðsson.
+ */
+package is.codion.sdkboy.ui;
+
+import is.codion.common.reactive.value.Value;
+import is.codion.sdkboy.model.Json;
+import is.codion.sdkboy.model.Metrics;
+
+import java.awt.AWTEvent;
+import java.awt.EventQueue;
+import java.awt.Toolkit;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.stream.Collectors.joining;
+
+/**
+ * Measures the event dispatch latency and captures the stack of the event dispatch
+ * thread when an event runs longer than the stall threshold, aggregated by stack signature.
+ * Events dispatched while another event is running, such as by a modal dialog, are
+ * measured on their own, so the time a modal dialog is open does not count as a stall,
+ * while the rest of the outer event, once the dialog is closed, is watched as well.
+ */
+final class EventDispatchWatchdog extends EventQueue {
+
+	private static final int SIGNATURE_FRAMES = 12;
+	private static final long MINIMUM_SAMPLE_MILLIS = 5;
+
+	private final Metrics metrics;
+	private final Map<String, Stall> stalls = new ConcurrentHashMap<>();
+
+	private volatile long thresholdNanos;
+	private volatile long dispatchStarted;
+	private volatile long dispatchSequence;
+	private volatile Thread dispatchThread;
+
+	// Only accessed on the event dispatch thread
+	private int dispatchDepth;
+
+	private EventDispatchWatchdog(Metrics metrics, Value<Integer> thresholdMillis) {
+		this.metrics = metrics;
+		this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis.getOrThrow());
+		thresholdMillis.addConsumer(millis -> thresholdNanos = TimeUnit.MILLISECONDS.toNanos(millis));
+	}
+
+	/**
+	 * Installs the watchdog on the system event queue
+	 * @param metrics the metrics to record the dispatch latency to
+	 * @param thresholdMillis the stall threshold in milliseconds
+	 * @return the watchdog
+	 */
+	static EventDispatchWatchdog install(Metrics metrics, Value<Integer> thresholdMillis) {
+		EventDispatchWatchdog watchdog = new EventDispatchWatchdog(metrics, thresholdMillis);
+		Toolkit.getDefaultToolkit().getSystemEventQueue().push(watchdog);
+		Thread.ofPlatform()
+						.name("SDKBOY EDT watchdog")
+						.daemon(true)
+						.start(watchdog::watch);
+
+		return watchdog;
+	}
+
+	/**
+	 * @return the stalls, the most frequent first
+	 */
+	List<StallSnapshot> stalls() {
+		return stalls.values().stream()
+						.map(Stall::snapshot)
+						.sorted(Comparator.comparingLong(StallSnapshot::count).reversed())
+						.toList();
+	}
+
+	@Override
+	protected void dispatchEvent(AWTEvent event) {
+		long sequence = ++dispatchSequence;
+		long started = System.nanoTime();
+		dispatchThread = Thread.currentThread();
+		dispatchStarted = started;
+		dispatchDepth++;
+		try {
+			super.dispatchEvent(event);
+		}
+		finally {
+			dispatchDepth--;
+			// Only record events which did not dispatch others, such as by displaying a modal dialog
+			if (sequence == dispatchSequence) {
+				metrics.histogram(Metrics.EDT_DISPATCH, Metrics.MICROSECONDS).record((System.nanoTime() - started) / 1_000);
+			}
+			if (dispatchDepth > 0) {
+				// Watches the rest of the outer event from here, as a stall of its own
+				dispatchSequence++;
+				dispatchStarted = System.nanoTime();
+			}
+			else {
+				dispatchStarted = 0;
+			}
+		}
+	}
+
+	@Override
+	public AWTEvent getNextEvent() throws InterruptedException {
+		// Waiting for the next event, such as within the event loop of a modal dialog, is not a stall
+		dispatchStarted = 0;
+
+		return super.getNextEvent();
+	}
+
+	private void watch() {
+		long stalledSequence = -1;
+		Stall stall = null;
+		while (true) {
+			try {
+				Thread.sleep(Math.max(MINIMUM_SAMPLE_MILLIS, TimeUnit.NANOSECONDS.toMillis(thresholdNanos) / 2));
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+			long started = dispatchStarted;
+			long sequence = dispatchSequence;
+			long elapsed = System.nanoTime() - started;
+			if (started != 0 && elapsed > thresholdNanos) {
+				if (sequence != stalledSequence) {
+					stalledSequence = sequence;
+					stall = capture();
+				}
+				if (stall != null) {
+					stall.duration(elapsed);
+				}
+			}
+		}
+	}
+
+	private Stall capture() {
+		Thread thread = dispatchThread;
+		if (thread == null) {
+			return null;
+		}
+		StackTraceElement[] stack = thread.getStackTrace();
+		String signature = Arrays.stream(stack)
+						.limit(SIGNATURE_FRAMES)
+						.map(StackTraceElement::toString)
+						.collect(joining("\n"));
+		Stall stall = stalls.computeIfAbsent(signature, _ -> new Stall(signature));
+		stall.count.increment();
+		metrics.counter(Metrics.EDT_STALL).increment();
+
+		return stall;
+	}
+
+	record StallSnapshot(String signature, long count, long maxMillis) {
+
+		String toJson() {
+			return "{\"count\": " + count + ", \"maxMillis\": " + maxMillis +
+							", \"stack\": " + Json.string(signature) + "}";
+		}
+
+		@Override
+		public String toString() {
+			return count + " stall(s), max " + maxMillis + " ms\n  " + signature.replace("\n", "\n  ");
+		}
+	}
+
+	private static final class Stall {
+
+		private final String signature;
+		private final LongAdder count = new LongAdder();
+		private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+
+		private Stall(String signature) {
+			this.signature = signature;
+		}
+
+		private void duration(long nanos) {
+			maxNanos.accumulate(nanos);
+		}
+
+		private StallSnapshot snapshot() {
+			return new StallSnapshot(signature, count.sum(), TimeUnit.NANOSECONDS.toMillis(maxNanos.get()));
+		}
+	}
+}
@@ -23,14 +23,24 @@ import is.codion.common.reactive.event.Event;
 import is.codion.common.reactive.state.ObservableState;
 import is.codion.common.reactive.state.State;
 import is.codion.common.reactive.value.Value;
+import is.codion.sdkboy.model.DiskUsage;
+import is.codion.sdkboy.model.FlightRecording;
+import is.codion.sdkboy.model.InstallProgress;
+import is.codion.sdkboy.model.Manifest;
+import is.codion.sdkboy.model.Metrics;
 import is.codion.sdkboy.model.SDKBoyModel;
 import is.codion.sdkboy.model.SDKBoyModel.CandidateModel;
 import is.codion.sdkboy.model.SDKBoyModel.CandidateModel.CandidateColumn;
 import is.codion.sdkboy.model.SDKBoyModel.CandidateModel.CandidateRow;
 import is.codion.sdkboy.model.SDKBoyModel.PreferencesModel;
+import is.codion.sdkboy.model.SDKBoyModel.SearchModel;
+import is.codion.sdkboy.model.SDKBoyModel.SearchModel.MatchColumn;
 import is.codion.sdkboy.model.SDKBoyModel.VersionModel;
 import is.codion.sdkboy.model.SDKBoyModel.VersionModel.VersionColumn;
+import is.codion.sdkboy.model.SDKBoyModel.VersionModel.VersionInfo;
 import is.codion.sdkboy.model.SDKBoyModel.VersionModel.VersionRow;
+import is.codion.sdkboy.model.SDKBoyService;
+import is.codion.sdkboy.model.SearchIndex.Match;
 import is.codion.swing.common.model.action.DelayedAction;
 import is.codion.swing.common.model.worker.ProgressWorker;
 import is.codion.swing.common.model.worker.ProgressWorker.ProgressReporter;
@@ -62,15 +72,25 @@ import javax.swing.JScrollPane;
 import javax.swing.JTextArea;
 import javax.swing.JTextField;
 import javax.swing.SwingConstants;
+import javax.swing.UIManager;
 import javax.swing.event.HyperlinkEvent;
 import javax.swing.event.HyperlinkListener;
 import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
 import java.awt.GridLayout;
+import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import static is.codion.common.reactive.state.State.and;
 import static is.codion.sdkboy.model.SDKBoyModel.PreferencesModel.getLookAndFeelPreference;
@@ -84,13 +104,18 @@ import static is.codion.swing.common.ui.laf.LookAndFeelProvider.findLookAndFeel;
 import static is.codion.swing.common.ui.layout.Layouts.borderLayout;
 import static java.awt.BorderLayout.*;
 import static java.awt.Desktop.getDesktop;
+import static java.awt.image.BufferedImage.TYPE_INT_ARGB;
 import static java.awt.event.KeyEvent.*;
 import static java.lang.Thread.setDefaultUncaughtExceptionHandler;
+import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.joining;
 import static javax.swing.BorderFactory.createCompoundBorder;
 import static javax.swing.BorderFactory.createTitledBorder;
 import static javax.swing.JOptionPane.*;
 import static javax.swing.JTable.AUTO_RESIZE_ALL_COLUMNS;
 import static javax.swing.ListSelectionModel.SINGLE_SELECTION;
+import static javax.swing.SwingUtilities.getWindowAncestor;
+import static javax.swing.SwingUtilities.invokeLater;
 import static javax.swing.UIManager.getIcon;
 import static javax.swing.WindowConstants.DO_NOTHING_ON_CLOSE;
 import static javax.swing.event.HyperlinkEvent.EventType.ACTIVATED;
@@ -107,6 +132,11 @@ public final class SDKBoyPanel extends JPanel {
 					Alt-O         Description
 					Alt-S         Shortcuts
 					Alt-P         Preferences
+					Alt-G         Diagnostics
+					Alt-J         JFR Recording
+					Alt-M         Manifest
+					Alt-K         Prune
+					Alt-F         Search
 					Alt-R         Refresh
 					Alt-X         Exit
 					Alt-I/Ins     Install
@@ -119,14 +149,28 @@ public final class SDKBoyPanel extends JPanel {
 					Used         :Uninstall
 					""";
 
+	/**
+	 * Exits after the first paint, printing the time since process start,
+	 * used for the AOT cache training run and for measuring startup time.
+	 */
+	static final String EXIT_AFTER_FIRST_PAINT = "sdkboy.exitAfterFirstPaint";
+
 	private final SDKBoyModel model = new SDKBoyModel();
 	private final CandidatePanel candidatePanel;
 	private final VersionPanel versionPanel;
+	private final EventDispatchWatchdog watchdog =
+					EventDispatchWatchdog.install(model.metrics(), model.preferencesModel().stallThreshold());
 	private final State help = State.builder()
 					.consumer(this::onHelp)
 					.build();
 
+	private HelpPanel helpPanel;
 	private PreferencesPanel preferencesPanel;
+	private DiagnosticsPanel diagnosticsPanel;
+	private ManifestPanel manifestPanel;
+	private PrunePanel prunePanel;
+	private SearchPanel searchPanel;
+	private boolean painted = false;
 
 	private SDKBoyPanel() {
 		super(borderLayout());
@@ -140,7 +184,29 @@ public final class SDKBoyPanel extends JPanel {
 	@Override
 	public void updateUI() {
 		super.updateUI();
-		Utilities.updateUI(preferencesPanel);
+		Utilities.updateUI(helpPanel, preferencesPanel, diagnosticsPanel, manifestPanel, prunePanel, searchPanel);
+	}
+
+	@Override
+	public void paint(Graphics graphics) {
+		super.paint(graphics);
+		if (!painted) {
+			painted = true;
+			invokeLater(this::afterFirstPaint);
+		}
+	}
+
+	private void afterFirstPaint() {
+		if (Boolean.getBoolean(EXIT_AFTER_FIRST_PAINT)) {
+			exitAfterFirstPaint();
+		}
+		// Rasterizing the logo loads the SVG renderer, which can wait until after the first paint
+		Icon logo = svgIcon(SDKBoyPanel.class.getResource("logo.svg"), 68, Color.BLACK);
+		BufferedImage image = new BufferedImage(logo.getIconWidth(), logo.getIconHeight(), TYPE_INT_ARGB);
+		Graphics2D graphics = image.createGraphics();
+		logo.paintIcon(this, graphics, 0, 0);
+		graphics.dispose();
+		getWindowAncestor(this).setIconImage(image);
 	}
 
 	private void initializeUI() {
@@ -159,6 +225,21 @@ public final class SDKBoyPanel extends JPanel {
 						.keyCode(VK_P)
 						.action(command(this::displayPreferences))
 						.enable(this)
+						.keyCode(VK_G)
+						.action(command(this::displayDiagnostics))
+						.enable(this)
+						.keyCode(VK_J)
+						.action(command(this::toggleFlightRecording))
+						.enable(this)
+						.keyCode(VK_M)
+						.action(command(this::displayManifest))
+						.enable(this)
+						.keyCode(VK_K)
+						.action(command(this::displayPrune))
+						.enable(this)
+						.keyCode(VK_F)
+						.action(command(this::displaySearch))
+						.enable(this)
 						.keyCode(VK_R)
 						.action(command(versionPanel::refreshCandidates))
 						.enable(this)
@@ -187,7 +268,10 @@ public final class SDKBoyPanel extends JPanel {
 
 	private void onHelp(boolean visible) {
 		if (visible) {
-			add(new HelpPanel(), EAST);
+			if (helpPanel == null) {
+				helpPanel = new HelpPanel();
+			}
+			add(helpPanel, EAST);
 		}
 		else {
 			BorderLayout layout = (BorderLayout) getLayout();
@@ -210,6 +294,71 @@ public final class SDKBoyPanel extends JPanel {
 						.show();
 	}
 
+	private void displayDiagnostics() {
+		if (diagnosticsPanel == null) {
+			diagnosticsPanel = new DiagnosticsPanel(model.metrics(), watchdog);
+		}
+		diagnosticsPanel.refresh();
+		Dialogs.builder()
+						.component(diagnosticsPanel)
+						.owner(this)
+						.title("Diagnostics")
+						.show();
+	}
+
+	private void displayManifest() {
+		if (manifestPanel == null) {
+			manifestPanel = new ManifestPanel(model);
+		}
+		Dialogs.builder()
+						.component(manifestPanel)
+						.owner(this)
+						.title("Manifest")
+						.show();
+	}
+
+	private void displayPrune() {
+		if (prunePanel == null) {
+			prunePanel = new PrunePanel(model);
+		}
+		Dialogs.builder()
+						.component(prunePanel)
+						.owner(this)
+						.title("Prune")
+						.show();
+	}
+
+	private void displaySearch() {
+		if (searchPanel == null) {
+			searchPanel = new SearchPanel(model.searchModel());
+		}
+		if (!model.searchModel().indexed().is()) {
+			model.searchModel().index();
+		}
+		Dialogs.builder()
+						.component(searchPanel)
+						.owner(this)
+						.title("Search")
+						.show();
+	}
+
+	private void toggleFlightRecording() {
+		FlightRecording flightRecording = model.flightRecording();
+		if (flightRecording.active().is()) {
+			flightRecording.stop(Dialogs.select()
+							.files()
+							.owner(this)
+							.title("Save flight recording")
+							.selectFileToSave("sdkboy.jfr")
+							.toPath());
+		}
+		else {
+			flightRecording.start();
+			showMessageDialog(this, "Flight recording started, Alt-J to stop and save",
+							"Flight Recording", INFORMATION_MESSAGE);
+		}
+	}
+
 	private void displayDescription() {
 		candidatePanel.table.model().selection().item().optional()
 						.ifPresent(candidateRow -> Dialogs.builder()
@@ -316,6 +465,8 @@ public final class SDKBoyPanel extends JPanel {
 							.enabled(and(installing.not(), refreshingVersions.not()))
 							.cellRenderer(CandidateColumn.INSTALLED, Integer.class, renderer -> renderer
 											.horizontalAlignment(SwingConstants.CENTER))
+							.cellRenderer(CandidateColumn.SIZE, DiskUsage.Size.class, renderer -> renderer
+											.horizontalAlignment(SwingConstants.RIGHT))
 							.build();
 			filter = createFilterField(candidateModel.filter(), table, installing);
 			installedOnly = checkBox()
@@ -328,7 +479,7 @@ public final class SDKBoyPanel extends JPanel {
 			setBorder(createCompoundBorder(createTitledBorder("Candidates"), emptyBorder()));
 			add(scrollPane()
 							.view(table)
-							.preferredWidth(220)
+							.preferredWidth(310)
 							.build(), CENTER);
 			add(borderLayoutPanel()
 							.center(filter)
@@ -337,8 +488,9 @@ public final class SDKBoyPanel extends JPanel {
 		}
 
 		private void configureColumns(FilterTableColumn.Builder<CandidateColumn> column) {
-			if (column.identifier() == CandidateColumn.INSTALLED) {
-				column.fixedWidth(80);
+			switch (column.identifier()) {
+				case INSTALLED -> column.fixedWidth(80);
+				case SIZE -> column.fixedWidth(90);
 			}
 		}
 	}
@@ -407,11 +559,17 @@ public final class SDKBoyPanel extends JPanel {
 							.selectionMode(SINGLE_SELECTION)
 							.autoResizeMode(AUTO_RESIZE_ALL_COLUMNS)
 							.columnReordering(false)
-							.hideColumns(VersionColumn.VENDOR)
+							.hideColumns(VersionColumn.VENDOR, VersionColumn.RELEASE, VersionColumn.IMPLEMENTOR, VersionColumn.ARCHITECTURE)
+							.cellRenderer(VersionColumn.VERSION, VersionInfo.class, renderer -> renderer
+											.foreground((_, row, _, _) -> versionModel.inserted(row) ? UIManager.getColor("Actions.Green") : null))
+							.cellRenderer(VersionColumn.SIZE, DiskUsage.Size.class, renderer -> renderer
+											.horizontalAlignment(SwingConstants.RIGHT))
 							.rowsFillViewport(true)
 							.doubleClick(command(this::onVersionDoubleClick))
 							.enabled(installTask.active.not())
 							.build();
+			onReleaseColumns(model.preferencesModel().releaseColumns().is());
+			model.preferencesModel().releaseColumns().addConsumer(this::onReleaseColumns);
 			filter = createFilterField(versionModel.filter(), table, installTask.active);
 			installedOnly = checkBox()
 							.link(versionModel.installedOnly())
@@ -579,6 +737,11 @@ public final class SDKBoyPanel extends JPanel {
 							.set(candidateRow != null && JAVA.equals(candidateRow.candidate().name()));
 		}
 
+		private void onReleaseColumns(boolean visible) {
+			List.of(VersionColumn.RELEASE, VersionColumn.IMPLEMENTOR, VersionColumn.ARCHITECTURE)
+							.forEach(column -> table.columnModel().visible(column).set(visible));
+		}
+
 		private void onRefreshing(boolean refreshing) {
 			southComponent.toggle(refreshProgress, refreshing);
 		}
@@ -593,7 +756,6 @@ public final class SDKBoyPanel extends JPanel {
 		}
 
 		private void onDownloading(boolean downloading) {
-			installProgress.setIndeterminate(!downloading);
 			if (downloading) {
 				cancelDownload.requestFocusInWindow();
 			}
@@ -608,22 +770,24 @@ public final class SDKBoyPanel extends JPanel {
 				case INSTALLED -> column.fixedWidth(80);
 				case DOWNLOADED -> column.fixedWidth(90);
 				case USED -> column.fixedWidth(60);
+				case SIZE -> column.fixedWidth(90);
 			}
 		}
 
-		private final class InstallTask implements ProgressTaskHandler<String> {
+		private final class InstallTask implements ProgressTaskHandler<InstallProgress> {
 
 			private final State active = State.state();
 			private final State downloading = State.state();
 			private final Event<?> cancel = Event.event();
 
 			@Override
-			public void execute(ProgressReporter<String> progress) {
+			public void execute(ProgressReporter<InstallProgress> progress) {
 				versionModel.install(progress, downloading, cancel);
 			}
 
 			@Override
 			public void onStarted() {
+				installProgress.setIndeterminate(true);
 				installProgress.setString("Procrastinating");
 				active.set(true);
 			}
@@ -634,8 +798,12 @@ public final class SDKBoyPanel extends JPanel {
 			}
 
 			@Override
-			public void onPublish(List<String> status) {
-				installProgress.setString(status.getFirst() + " " + versionName());
+			public void onPublish(List<InstallProgress> chunks) {
+				// Only the latest progress is of interest
+				InstallProgress progress = chunks.getLast();
+				installProgress.setIndeterminate(!progress.determinate());
+				installProgress.setValue(progress.percent());
+				installProgress.setString(progress.state() + " " + versionName() + progress.details());
 			}
 
 			@Override
@@ -705,9 +873,26 @@ public final class SDKBoyPanel extends JPanel {
 		private final ComponentValue<JCheckBox, Boolean> confirmActions;
 		private final ComponentValue<JCheckBox, Boolean> confirmExit;
 		private final ComponentValue<JComboBox<Level>, Level> logLevel;
+		private final ComponentValue<JTextField, Integer> stallThreshold;
+		private final ComponentValue<JCheckBox, Boolean> serveQueries;
+		private final ComponentValue<JTextField, Integer> bandwidthLimit;
+		private final ComponentValue<JTextField, Integer> downloadBandwidthLimit;
+		private final ComponentValue<JCheckBox, Boolean> deferLargeDownloads;
+		private final ComponentValue<JTextField, Integer> offPeakStart;
+		private final ComponentValue<JTextField, Integer> offPeakEnd;
+		private final ComponentValue<JTextField, Integer> largeDownloadThreshold;
+		private final ComponentValue<JTextField, String> mirrors;
+		private final ComponentValue<JTextField, Integer> hedgeThreshold;
+		private final ComponentValue<JTextField, String> sharedCache;
+		private final ComponentValue<JTextField, Integer> archiveCapacity;
+		private final ComponentValue<JCheckBox, Boolean> pinInstalledArchives;
+		private final ComponentValue<JCheckBox, Boolean> predownloadUpdates;
+		private final ComponentValue<JCheckBox, Boolean> highlightNewVersions;
+		private final ComponentValue<JCheckBox, Boolean> releaseColumns;
 		private final JButton browseZipExecutableButton;
 		private final JButton browseUnzipExecutableButton;
 		private final JButton browseTarExecutableButton;
+		private final JButton browseSharedCacheButton;
 		private final JButton logFileButton;
 		private final JButton logDirectoryButton;
 
@@ -781,6 +966,96 @@ public final class SDKBoyPanel extends JPanel {
 							.model(preferences.logLevels())
 							.value(preferences.logLevel())
 							.buildValue();
+			stallThreshold = integerField()
+							.link(preferences.stallThreshold())
+							.columns(6)
+							.selectAllOnFocusGained(true)
+							.buildValue();
+			serveQueries = checkBox()
+							.link(preferences.serveQueries())
+							.text("Serve queries on a local socket")
+							.mnemonic('Q')
+							.buildValue();
+			bandwidthLimit = integerField()
+							.link(preferences.bandwidthLimit())
+							.columns(6)
+							.selectAllOnFocusGained(true)
+							.buildValue();
+			downloadBandwidthLimit = integerField()
+							.link(preferences.downloadBandwidthLimit())
+							.columns(6)
+							.selectAllOnFocusGained(true)
+							.buildValue();
+			deferLargeDownloads = checkBox()
+							.link(preferences.deferLargeDownloads())
+							.text("Defer large downloads to off-peak hours")
+							.mnemonic('P')
+							.buildValue();
+			offPeakStart = integerField()
+							.link(preferences.offPeakStart())
+							.columns(3)
+							.selectAllOnFocusGained(true)
+							.enabled(preferences.deferLargeDownloads())
+							.buildValue();
+			offPeakEnd = integerField()
+							.link(preferences.offPeakEnd())
+							.columns(3)
+							.selectAllOnFocusGained(true)
+							.enabled(preferences.deferLargeDownloads())
+							.buildValue();
+			largeDownloadThreshold = integerField()
+							.link(preferences.largeDownloadThreshold())
+							.columns(6)
+							.selectAllOnFocusGained(true)
+							.enabled(preferences.deferLargeDownloads())
+							.buildValue();
+			mirrors = stringField()
+							.link(preferences.mirrors())
+							.columns(20)
+							.selectAllOnFocusGained(true)
+							.buildValue();
+			hedgeThreshold = integerField()
+							.link(preferences.hedgeThreshold())
+							.columns(6)
+							.selectAllOnFocusGained(true)
+							.buildValue();
+			sharedCache = stringField()
+							.link(preferences.sharedCache())
+							.columns(20)
+							.selectAllOnFocusGained(true)
+							.buildValue();
+			browseSharedCacheButton = button()
+							.control(Control.builder()
+											.command(this::browseSharedCache)
+											.smallIcon(directoryIcon))
+							.build();
+			archiveCapacity = integerField()
+							.link(preferences.archiveCapacity())
+							.columns(6)
+							.selectAllOnFocusGained(true)
+							.enabled(preferences.keepDownloadsAvailable())
+							.buildValue();
+			pinInstalledArchives = checkBox()
+							.link(preferences.pinInstalledArchives())
+							.text("Never evict archives of installed versions")
+							.mnemonic('E')
+							.enabled(preferences.keepDownloadsAvailable())
+							.buildValue();
+			predownloadUpdates = checkBox()
+							.link(preferences.predownloadUpdates())
+							.text("Pre-download patch updates of used versions in the background")
+							.mnemonic('G')
+							.buildValue();
+			highlightNewVersions = checkBox()
+							.link(preferences.highlightNewVersions())
+							.text("Highlight new versions found in the background")
+							.mnemonic('O')
+							.buildValue();
+			releaseColumns = checkBox()
+							.link(preferences.releaseColumns())
+							.text("Display release columns of installed versions")
+							.mnemonic('C')
+							.buildValue();
 			setBorder(emptyBorder());
 			add(flexibleGridLayoutPanel(0, 1)
 							.add(label("Look & Feel")
@@ -818,9 +1093,57 @@ public final class SDKBoyPanel extends JPanel {
 															.layout(new GridLayout(1, 0, 0, 5))
 															.add(logFileButton)
 															.add(logDirectoryButton)))
+							.add(label("EDT stall threshold (ms)")
+											.displayedMnemonic('H')
+											.labelFor(stallThreshold.component()))
+							.add(stallThreshold.component())
+							.add(label("Bandwidth limit, all downloads (KiB/s, 0 for none)")
+											.displayedMnemonic('B')
+											.labelFor(bandwidthLimit.component()))
+							.add(bandwidthLimit.component())
+							.add(label("Bandwidth limit, each download (KiB/s, 0 for none)")
+											.displayedMnemonic('W')
+											.labelFor(downloadBandwidthLimit.component()))
+							.add(downloadBandwidthLimit.component())
+							.add(deferLargeDownloads.component())
+							.add(label("Off-peak hours, start - end (hour of day)")
+											.displayedMnemonic('S')
+											.labelFor(offPeakStart.component()))
+							.add(panel()
+											.layout(new GridLayout(1, 0, 5, 0))
+											.add(offPeakStart.component())
+											.add(offPeakEnd.component()))
+							.add(label("Large download threshold (MiB)")
+											.displayedMnemonic('M')
+											.labelFor(largeDownloadThreshold.component()))
+							.add(largeDownloadThreshold.component())
+							.add(label("Mirror base urls, separated by comma")
+											.displayedMnemonic('R')
+											.labelFor(mirrors.component()))
+							.add(mirrors.component())
+							.add(label("Hedge to the next mirror below (KiB/s, 0 for never)")
+											.displayedMnemonic('N')
+											.labelFor(hedgeThreshold.component()))
+							.add(hedgeThreshold.component())
+							.add(label("Shared archive cache directory")
+											.displayedMnemonic('A')
+											.labelFor(sharedCache.component()))
+							.add(borderLayoutPanel()
+											.layout(new BorderLayout(0, 5))
+											.center(sharedCache.component())
+											.east(browseSharedCacheButton))
+							.add(predownloadUpdates.component())
+							.add(highlightNewVersions.component())
+							.add(releaseColumns.component())
 							.add(keepDownloadsAvailable.component())
+							.add(label("Kept archive capacity (MiB, 0 for unlimited)")
+											.displayedMnemonic('Y')
+											.labelFor(archiveCapacity.component()))
+							.add(archiveCapacity.component())
+							.add(pinInstalledArchives.component())
 							.add(confirmActions.component())
 							.add(confirmExit.component())
+							.add(serveQueries.component())
 							.build(), CENTER);
 		}
 
@@ -845,6 +1168,16 @@ public final class SDKBoyPanel extends JPanel {
 			}
 		}
 
+		private void browseSharedCache() {
+			sharedCache.set(Dialogs.select()
+							.files()
+							.owner(this)
+							.title("Select shared archive cache directory")
+							.selectDirectory()
+							.toPath()
+							.toString());
+		}
+
 		private void browseExecutable(Value<String> executable) {
 			executable.set(Dialogs.select()
 							.files()
@@ -856,6 +1189,394 @@ public final class SDKBoyPanel extends JPanel {
 		}
 	}
 
+	private static final class DiagnosticsPanel extends JPanel {
+
+		private final Metrics metrics;
+		private final EventDispatchWatchdog watchdog;
+		private final JTextArea snapshot = textArea()
+						.rowsColumns(20, 100)
+						.font(HelpPanel::monospaceFont)
+						.editable(false)
+						.build();
+
+		private DiagnosticsPanel(Metrics metrics, EventDispatchWatchdog watchdog) {
+			super(borderLayout());
+			this.metrics = metrics;
+			this.watchdog = watchdog;
+			setBorder(emptyBorder());
+			add(scrollPane()
+							.view(snapshot)
+							.build(), CENTER);
+			add(flexibleGridLayoutPanel(1, 0)
+							.add(button()
+											.control(Control.builder()
+															.command(this::refresh)
+															.caption("Refresh")
+															.mnemonic('R')))
+							.add(button()
+											.control(Control.builder()
+															.command(this::export)
+															.caption("Export...")
+															.mnemonic('E')))
+							.build(), SOUTH);
+		}
+
+		private void refresh() {
+			StringBuilder text = new StringBuilder(metrics.snapshot().toString());
+			watchdog.stalls().forEach(stall -> text.append(System.lineSeparator()).append(stall));
+			snapshot.setText(text.toString());
+			snapshot.setCaretPosition(0);
+		}
+
+		private void export() {
+			File file = Dialogs.select()
+							.files()
+							.owner(this)
+							.title("Export diagnostics")
+							.selectFileToSave("sdkboy-diagnostics.json");
+			try {
+				Files.writeString(file.toPath(), "{\n\"metrics\": " + metrics.snapshot().toJson() +
+								",\n\"stalls\": [" + watchdog.stalls().stream()
+								.map(stall -> "\n  " + stall.toJson())
+								.collect(joining(",")) + "\n]\n}\n");
+			}
+			catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+		}
+	}
+
+	private static final class ManifestPanel extends JPanel {
+
+		private final SDKBoyModel model;
+		private final Map<Manifest.Action, InstallProgress> progress = new LinkedHashMap<>();
+		private final State planned = State.state();
+		private final State reconciling = State.state();
+		private final Event<?> cancel = Event.event();
+		private final JTextArea text = textArea()
+						.rowsColumns(20, 100)
+						.font(HelpPanel::monospaceFont)
+						.editable(false)
+						.build();
+
+		private @Nullable Manifest manifest;
+
+		private ManifestPanel(SDKBoyModel model) {
+			super(borderLayout());
+			this.model = model;
+			setBorder(emptyBorder());
+			add(scrollPane()
+							.view(text)
+							.build(), CENTER);
+			add(flexibleGridLayoutPanel(1, 0)
+							.add(button()
+											.control(Control.builder()
+															.command(this::open)
+															.caption("Open...")
+															.mnemonic('O')
+															.enabled(reconciling.not())))
+							.add(button()
+											.control(Control.builder()
+															.command(this::apply)
+															.caption("Apply")
+															.mnemonic('A')
+															.enabled(and(planned, reconciling.not()))))
+							.add(button()
+											.control(Control.builder()
+															.command(cancel::run)
+															.caption("Cancel")
+															.mnemonic('C')
+															.enabled(reconciling)))
+							.build(), SOUTH);
+		}
+
+		private void open() {
+			manifest = Manifest.parse(Dialogs.select()
+							.files()
+							.owner(this)
+							.title("Open manifest")
+							.selectFile()
+							.toPath());
+			text.setText(plan().toString());
+		}
+
+		private void apply() {
+			// Plan again, in case the local state changed since the manifest was opened
+			Manifest.Plan plan = plan();
+			if (!plan.isEmpty()) {
+				ProgressWorker.builder()
+								.task(new ReconcileTask(plan))
+								.execute();
+			}
+		}
+
+		private Manifest.Plan plan() {
+			// Local state only, no network access
+			Manifest.Plan plan = model.service().plan(requireNonNull(manifest));
+			planned.set(!plan.isEmpty());
+
+			return plan;
+		}
+
+		private record ActionProgress(Manifest.Action action, InstallProgress progress) {}
+
+		private final class ReconcileTask implements ProgressTaskHandler<ActionProgress> {
+
+			private final Manifest.Plan plan;
+
+			private ReconcileTask(Manifest.Plan plan) {
+				this.plan = plan;
+			}
+
+			@Override
+			public void execute(ProgressReporter<ActionProgress> reporter) {
+				model.service().reconcile(plan, (action, installProgress) ->
+								reporter.publish(new ActionProgress(action, installProgress)), cancel);
+			}
+
+			@Override
+			public void onStarted() {
+				progress.clear();
+				plan.actions().forEach(action -> progress.put(action, InstallProgress.indeterminate("Waiting")));
+				reconciling.set(true);
+				render();
+			}
+
+			@Override
+			public void onPublish(List<ActionProgress> chunks) {
+				chunks.forEach(chunk -> progress.put(chunk.action(), chunk.progress()));
+				render();
+			}
+
+			@Override
+			public void onDone() {
+				reconciling.set(false);
+				model.refresh();
+			}
+
+			@Override
+			public void onSuccess() {
+				text.append("\n\n" + plan());
+			}
+
+			private void render() {
+				text.setText(progress.entrySet().stream()
+								.map(entry -> String.format("%-50s %s", entry.getKey(), entry.getValue()))
+								.collect(joining("\n")));
+			}
+		}
+	}
+
+	private static final class PrunePanel extends JPanel {
+
+		private final SDKBoyModel model;
+		private final Map<Manifest.Action, InstallProgress> progress = new LinkedHashMap<>();
+		private final Value<Integer> keep = Value.nonNull(1);
+		private final State selectedOnly = State.state();
+		private final State planned = State.state();
+		private final State pruning = State.state();
+		private final JTextArea text = textArea()
+						.rowsColumns(20, 100)
+						.font(HelpPanel::monospaceFont)
+						.editable(false)
+						.build();
+
+		private Manifest.Plan plan = new Manifest.Plan(List.of(), List.of(), List.of());
+
+		private PrunePanel(SDKBoyModel model) {
+			super(borderLayout());
+			this.model = model;
+			keep.addListener(() -> planned.set(false));
+			selectedOnly.addListener(() -> planned.set(false));
+			ComponentValue<JTextField, Integer> keepField = integerField()
+							.link(keep)
+							.columns(4)
+							.selectAllOnFocusGained(true)
+							.enabled(pruning.not())
+							.buildValue();
+			setBorder(emptyBorder());
+			add(flexibleGridLayoutPanel(1, 0)
+							.add(label("Keep the latest patch releases of each vendor and major version")
+											.displayedMnemonic('K')
+											.labelFor(keepField.component()))
+							.add(keepField.component())
+							.add(checkBox()
+											.link(selectedOnly)
+											.text("Selected candidate only")
+											.mnemonic('S')
+											.enabled(pruning.not()))
+							.build(), NORTH);
+			add(scrollPane()
+							.view(text)
+							.build(), CENTER);
+			add(flexibleGridLayoutPanel(1, 0)
+							.add(button()
+											.control(Control.builder()
+															.command(this::preview)
+															.caption("Preview")
+															.mnemonic('V')
+															.enabled(pruning.not())))
+							.add(button()
+											.control(Control.builder()
+															.command(this::prune)
+															.caption("Prune")
+															.mnemonic('R')
+															.enabled(and(planned, pruning.not()))))
+							.build(), SOUTH);
+		}
+
+		private void preview() {
+			int releases = keep.getOrThrow();
+			List<String> candidates = selectedOnly.is() ?
+							model.candidateModel().tableModel().selection().item().optional()
+											.map(candidateRow -> List.of(candidateRow.candidate().id()))
+											.orElse(List.of()) :
+							model.service().installedCandidates();
+			ProgressWorker.builder()
+							.task(() -> preview(candidates, releases))
+							.onResult(this::onPreview)
+							.execute();
+		}
+
+		/**
+		 * Plans the prune, which may fetch the version lists, and renders it along with the disk space freed
+		 */
+		private Preview preview(List<String> candidates, int releases) {
+			SDKBoyService service = model.service();
+			Manifest.Plan prunePlan = service.prunePlan(candidates, releases);
+			Map<String, Map<String, Long>> sizes = new HashMap<>();
+			long total = 0;
+			StringBuilder builder = new StringBuilder();
+			for (Manifest.Action action : prunePlan.uninstalls()) {
+				long bytes = sizes.computeIfAbsent(action.candidate(), service::diskUsage).getOrDefault(action.identifier(), 0L);
+				total += bytes;
+				builder.append(String.format("%-50s %12s%n", action, new DiskUsage.Size(bytes)));
+			}
+			builder.append(prunePlan.isEmpty() ? prunePlan.toString() : "\nFrees " + new DiskUsage.Size(total));
+
+			return new Preview(prunePlan, builder.toString());
+		}
+
+		private void onPreview(Preview preview) {
+			plan = preview.plan();
+			planned.set(!plan.isEmpty());
+			text.setText(preview.text());
+		}
+
+		private void prune() {
+			ProgressWorker.builder()
+							.task(new PruneTask(plan))
+							.execute();
+		}
+
+		private record Preview(Manifest.Plan plan, String text) {}
+
+		private record ActionProgress(Manifest.Action action, InstallProgress progress) {}
+
+		private final class PruneTask implements ProgressTaskHandler<ActionProgress> {
+
+			private final Manifest.Plan plan;
+
+			private PruneTask(Manifest.Plan plan) {
+				this.plan = plan;
+			}
+
+			@Override
+			public void execute(ProgressReporter<ActionProgress> reporter) {
+				model.service().prune(plan, (action, installProgress) ->
+								reporter.publish(new ActionProgress(action, installProgress)));
+			}
+
+			@Override
+			public void onStarted() {
+				progress.clear();
+				plan.uninstalls().forEach(action -> progress.put(action, InstallProgress.indeterminate("Waiting")));
+				pruning.set(true);
+				planned.set(false);
+				render();
+			}
+
+			@Override
+			public void onPublish(List<ActionProgress> chunks) {
+				chunks.forEach(chunk -> progress.put(chunk.action(), chunk.progress()));
+				render();
+			}
+
+			@Override
+			public void onDone() {
+				pruning.set(false);
+				model.refresh();
+			}
+
+			private void render() {
+				text.setText(progress.entrySet().stream()
+								.map(entry -> String.format("%-50s %s", entry.getKey(), entry.getValue()))
+								.collect(joining("\n")));
+			}
+		}
+	}
+
+	private static final class SearchPanel extends JPanel {
+
+		private final SearchModel searchModel;
+		private final FilterTable<Match, MatchColumn> table;
+		private final JProgressBar indexing = progressBar()
+						.string("Indexing...")
+						.stringPainted(true)
+						.build();
+
+		private SearchPanel(SearchModel searchModel) {
+			super(borderLayout());
+			this.searchModel = searchModel;
+			this.table = FilterTable.builder()
+							.model(searchModel.tableModel())
+							.sortable(false)
+							.focusable(false)
+							.selectionMode(SINGLE_SELECTION)
+							.autoResizeMode(AUTO_RESIZE_ALL_COLUMNS)
+							.columnReordering(false)
+							.doubleClick(command(this::select))
+							.build();
+			Indexes selectedIndexes = searchModel.tableModel().selection().indexes();
+			JTextField query = stringField()
+							.link(searchModel.query())
+							.hint("Search all candidates...")
+							.selectAllOnFocusGained(true)
+							.keyEvent(KeyEvents.builder()
+											.keyCode(VK_ENTER)
+											.action(command(this::select)))
+							.keyEvent(KeyEvents.builder()
+											.keyCode(VK_UP)
+											.action(command(selectedIndexes::decrement)))
+							.keyEvent(KeyEvents.builder()
+											.keyCode(VK_DOWN)
+											.action(command(selectedIndexes::increment)))
+							.keyEvent(KeyEvents.builder()
+											.keyCode(VK_PAGE_UP)
+											.action(pageUpControl(table)))
+							.keyEvent(KeyEvents.builder()
+											.keyCode(VK_PAGE_DOWN)
+											.action(pageDownControl(table)))
+							.build();
+			indexing.setVisible(!searchModel.indexed().is());
+			searchModel.indexed().addConsumer(indexed -> indexing.setVisible(!indexed));
+			setBorder(emptyBorder());
+			add(query, NORTH);
+			add(scrollPane()
+							.view(table)
+							.preferredWidth(500)
+							.build(), CENTER);
+			add(indexing, SOUTH);
+		}
+
+		private void select() {
+			if (!searchModel.tableModel().selection().empty().is()) {
+				searchModel.select();
+				Ancestor.window().of(this).dispose();
+			}
+		}
+	}
+
 	private static final class HelpPanel extends JPanel {
 
 		private final JTextArea shortcuts = textArea()
@@ -925,20 +1646,35 @@ public final class SDKBoyPanel extends JPanel {
 		}
 	}
 
+	private static void exitAfterFirstPaint() {
+		ProcessHandle.current().info().startInstant().ifPresent(started ->
+						System.out.println("First paint: " + Duration.between(started, Instant.now()).toMillis() + " ms"));
+		System.exit(0);
+	}
+
+	private static void enableLookAndFeel(String className) {
+		try {
+			// Only loads the preferred look and feel, the theme
+			// catalogue is loaded when the preferences are displayed
+			UIManager.setLookAndFeel(className);
+		}
+		catch (Exception e) {
+			findLookAndFeel(className).ifPresent(LookAndFeelEnabler::enable);
+		}
+	}
+
 	static void main() {
 		setDefaultUncaughtExceptionHandler((_, throwable) -> {
 			throwable.printStackTrace();
 			Dialogs.exception().show(throwable);
 		});
-		findLookAndFeel(getLookAndFeelPreference())
-						.ifPresent(LookAndFeelEnabler::enable);
+		enableLookAndFeel(getLookAndFeelPreference());
 
 		SDKBoyPanel sdkBoyPanel = new SDKBoyPanel();
 
 		Frames.builder()
 						.component(sdkBoyPanel)
 						.title("SDKBOY " + SDKBoyModel.VERSION)
-						.icon(svgIcon(SDKBoyPanel.class.getResource("logo.svg"), 68, Color.BLACK))
 						.centerFrame(true)
 						.defaultCloseOperation(DO_NOTHING_ON_CLOSE)
 						.onClosing(_ -> sdkBoyPanel.exit())
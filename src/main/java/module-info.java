@@ -25,5 +25,6 @@ module is.codion.sdkboy {
 	requires is.codion.plugin.flatlaf.intellij.themes;
 	requires ch.qos.logback.classic;
 	requires java.naming;
+	requires jdk.jfr;
 	requires sdkmanapi;
 }
\ No newline at end of file